@@ -0,0 +1,217 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link ComparableVerifier#verify()} scales with the number of
+ * instances per group for a cheap, a medium and an expensive compareTo.
+ * <p>
+ * Run with {@code ./gradlew jmh}, the results are written as JSON to
+ * {@code build/reports/jmh/results.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ComparableVerifierBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int instancesPerGroup;
+
+    @Param({"INTEGER", "BIG_DECIMAL", "COMPOSITE"})
+    public Kind kind;
+
+    private ComparableVerifier<?> verifier;
+
+    @Setup
+    public void setUp() {
+        verifier = kind.verifier(instancesPerGroup);
+    }
+
+    @Benchmark
+    public void verify() {
+        verifier.verify();
+    }
+
+    public enum Kind {
+        // cheap compareTo, the equal instances are distinct objects
+        INTEGER {
+            @Override
+            ComparableVerifier<?> verifier(final int count) {
+                final List<IntKey> lesser = new ArrayList<IntKey>(count);
+                final List<IntKey> equal = new ArrayList<IntKey>(count);
+                final List<IntKey> greater = new ArrayList<IntKey>(count);
+                for (int i = 0; i < count; i++) {
+                    lesser.add(new IntKey(i - count));
+                    equal.add(new IntKey(count));
+                    greater.add(new IntKey(2 * count + i));
+                }
+                return ComparableVerifier.forInstances(
+                        creator(lesser), creator(equal), creator(greater)
+                );
+            }
+        },
+        // medium compareTo, scale aware
+        BIG_DECIMAL {
+            @Override
+            ComparableVerifier<?> verifier(final int count) {
+                final List<BigDecimal> lesser = new ArrayList<BigDecimal>(count);
+                final List<BigDecimal> equal = new ArrayList<BigDecimal>(count);
+                final List<BigDecimal> greater = new ArrayList<BigDecimal>(count);
+                for (int i = 0; i < count; i++) {
+                    lesser.add(new BigDecimal(i - count).movePointLeft(i % 5));
+                    equal.add(new BigDecimal("1000000000000.000001"));
+                    greater.add(new BigDecimal("1000000000001").add(new BigDecimal(i).movePointLeft(i % 5)));
+                }
+                return ComparableVerifier.forInstances(
+                        creator(lesser), creator(equal), creator(greater)
+                ).suppressConsistentWithEquals(true);
+            }
+        },
+        // expensive compareTo comparing several fields
+        COMPOSITE {
+            @Override
+            ComparableVerifier<?> verifier(final int count) {
+                final List<CompositeKey> lesser = new ArrayList<CompositeKey>(count);
+                final List<CompositeKey> equal = new ArrayList<CompositeKey>(count);
+                final List<CompositeKey> greater = new ArrayList<CompositeKey>(count);
+                for (int i = 0; i < count; i++) {
+                    lesser.add(new CompositeKey("eu-west", i, new BigDecimal(i)));
+                    equal.add(new CompositeKey("eu-west", count, new BigDecimal("42.00")));
+                    greater.add(new CompositeKey("us-east", i, new BigDecimal(i)));
+                }
+                return ComparableVerifier.forInstances(
+                        creator(lesser), creator(equal), creator(greater)
+                );
+            }
+        };
+
+        abstract ComparableVerifier<?> verifier(int count);
+    }
+
+    private static <A> VerificationInstancesCreator<A> creator(final List<A> instances) {
+        return new VerificationInstancesCreator<A>() {
+            @Override
+            public List<A> create() {
+                return instances;
+            }
+        };
+    }
+
+    // holds an int like Integer, but is never cached by valueOf()
+    public static final class IntKey implements Comparable<IntKey> {
+        private final int value;
+
+        IntKey(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(final IntKey other) {
+            return Integer.compare(value, other.value);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other)
+                return true;
+
+            if (null == other || getClass() != other.getClass())
+                return false;
+
+            return value == ((IntKey) other).value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "IntKey{ value=" + value + '}';
+        }
+    }
+
+    public static final class CompositeKey implements Comparable<CompositeKey> {
+        private final String region;
+        private final long id;
+        private final BigDecimal price;
+
+        CompositeKey(final String region, final long id, final BigDecimal price) {
+            this.region = region;
+            this.id = id;
+            this.price = price;
+        }
+
+        @Override
+        public int compareTo(final CompositeKey other) {
+            final int byRegion = region.compareTo(other.region);
+            if (byRegion != 0)
+                return byRegion;
+
+            final int byId = Long.compare(id, other.id);
+            if (byId != 0)
+                return byId;
+
+            return price.compareTo(other.price);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other)
+                return true;
+
+            if (null == other || getClass() != other.getClass())
+                return false;
+
+            final CompositeKey that = (CompositeKey) other;
+
+            return id == that.id && region.equals(that.region) && price.compareTo(that.price) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = region.hashCode();
+            result = 31 * result + (int) (id ^ (id >>> 32));
+            result = 31 * result + price.stripTrailingZeros().hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "CompositeKey{ region=" + region + ", id=" + id + ", price=" + price + '}';
+        }
+    }
+}
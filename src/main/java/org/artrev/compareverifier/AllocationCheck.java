@@ -0,0 +1,142 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Verifies that comparing the instances does not allocate memory.
+ * <p>
+ * The allocations are read from the per-thread allocation counter of
+ * {@link com.sun.management.ThreadMXBean}, which counts only the memory
+ * allocated by the calling thread, so the garbage produced by other threads
+ * does not disturb the measurement.
+ * <p>
+ * The comparisons are warmed up first, so the JIT compiler gets the chance to
+ * remove the allocations that escape analysis proves unnecessary, just like
+ * it would on a hot path. Every measurement repeats the comparisons in
+ * {@link #ROUNDS} rounds and subtracts the cost of reading the counter. The
+ * comparisons of a whole row are measured at once and only the rows that
+ * allocate are measured again pair by pair.
+ *
+ * @param <A> type of the compared instances
+ */
+final class AllocationCheck<A> {
+    // comparisons done before the measurement starts
+    private static final int WARM_UP_COMPARISONS = 20000;
+    // every measurement repeats the comparisons, so the rare allocations
+    // of the runtime itself are averaged out
+    private static final int ROUNDS = 64;
+    // the cost of reading the counter is the minimum of these readings
+    private static final int BASELINE_READINGS = 16;
+
+    private final Comparator<? super A> comparator;
+    private final String comparison;
+    private final List<A> instances;
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId;
+
+    // consumes the results of the comparisons, so they cannot be eliminated
+    private int sink = 0;
+
+    AllocationCheck(final Comparator<? super A> comparator,
+                    final String comparison,
+                    final List<A> instances) {
+        this.comparator = comparator;
+        this.comparison = comparison;
+        this.instances = instances;
+        this.threads = allocationCounters();
+        this.threadId = Thread.currentThread().getId();
+    }
+
+    /**
+     * Throws an {@link AssertionError} naming the first pair whose
+     * comparison allocates more than the given number of bytes.
+     *
+     * @param maxBytesPerComparison allowed allocation of a single comparison.
+     */
+    void verify(final long maxBytesPerComparison) {
+        final int size = instances.size();
+
+        // the measurement itself is warmed up together with the comparisons
+        long comparisons = 0;
+        for (int a = 0; comparisons < WARM_UP_COMPARISONS; a = (a + 1) % size) {
+            bytesPerRound(a, 0, size, 0);
+            comparisons += (long) ROUNDS * size;
+        }
+
+        final long baseline = baseline();
+        for (int a = 0; a < size; a++) {
+            if (bytesPerRound(a, 0, size, baseline) <= maxBytesPerComparison)
+                continue;
+
+            for (int b = 0; b < size; b++) {
+                final long bytes = bytesPerRound(a, b, b + 1, baseline);
+                if (bytes > maxBytesPerComparison)
+                    throw new AssertionError(
+                            format("%s allocates %d bytes when comparing %s to %s!",
+                                    comparison, bytes, instances.get(a), instances.get(b))
+                    );
+            }
+        }
+    }
+
+    // bytes allocated by comparing the instance a to the instances [from, to)
+    private long bytesPerRound(final int a,
+                               final int from,
+                               final int to,
+                               final long baseline) {
+        final A instance = instances.get(a);
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int b = from; b < to; b++) {
+                sink += comparator.compare(instance, instances.get(b));
+            }
+        }
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before - baseline;
+
+        return Math.max(0, allocated) / ROUNDS;
+    }
+
+    // bytes allocated by reading the counter
+    private long baseline() {
+        long baseline = Long.MAX_VALUE;
+        for (int reading = 0; reading < BASELINE_READINGS; reading++) {
+            final long before = threads.getThreadAllocatedBytes(threadId);
+            baseline = Math.min(baseline, threads.getThreadAllocatedBytes(threadId) - before);
+        }
+        return baseline;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounters() {
+        final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean))
+            throw new IllegalStateException("Thread allocation counters are not supported by this JVM!");
+
+        final com.sun.management.ThreadMXBean counters = (com.sun.management.ThreadMXBean) threads;
+        if (!counters.isThreadAllocatedMemorySupported())
+            throw new IllegalStateException("Thread allocation counters are not supported by this JVM!");
+
+        if (!counters.isThreadAllocatedMemoryEnabled())
+            counters.setThreadAllocatedMemoryEnabled(true);
+
+        return counters;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.List;
+
+/**
+ * Runs tasks that may block, e.g. because the compared instances read an
+ * I/O-backed fixture, each on its own thread.
+ * <p>
+ * This is the Java 8 variant that starts a platform thread per task. The
+ * multi-release JAR contains a Java 21 variant in
+ * {@code META-INF/versions/21} that starts a virtual thread per task
+ * instead, so thousands of blocking tasks do not exhaust the platform
+ * threads.
+ */
+final class BlockingTasks {
+    private BlockingTasks() {
+        throw new IllegalStateException("BlockingTasks should not be instantiated!");
+    }
+
+    /**
+     * Runs every task on its own thread and waits until all of them finish.
+     * The tasks are expected to handle their own exceptions.
+     *
+     * @param name  prefix of the names of the threads.
+     * @param tasks tasks to run at once.
+     * @throws InterruptedException if interrupted while waiting for the tasks.
+     */
+    static void runAll(final String name,
+                       final List<? extends Runnable> tasks) throws InterruptedException {
+        final Thread[] threads = new Thread[tasks.size()];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(tasks.get(t), name + "-" + t);
+            threads[t].setDaemon(true);
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -15,7 +15,14 @@
  */
 package org.artrev.compareverifier;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import static java.lang.String.format;
 
@@ -26,7 +33,7 @@ import static java.lang.String.format;
  * By default verifier performs following checks if the implementation:
  * <ul>
  * <li>satisfies {@code sgn(a.compareTo(b)) == -sgn(b.compareTo(a))}</li>
- * <li>satisfies {@code sgn(a.compareTo(c)) == sgn(b.compareTo(c)) => sgn(a.compareTo(b)) == 0}</li>
+ * <li>satisfies {@code sgn(a.compareTo(b)) == 0 => sgn(a.compareTo(c)) == sgn(b.compareTo(c))}</li>
  * <li>satisfies {@code sgn(a.compareTo(b)) > 0 && sgn(b.compareTo(c)) > 0 => sgn(a.compareTo(c)) > 0}</li>
  * <li>is consistent with equals</li>
  * </ul>
@@ -92,6 +99,17 @@ import static java.lang.String.format;
  *     .verify();
  * }
  * </pre>
+ * Large instance sets can be verified on multiple cores.
+ * <p>
+ * <b>Example Parallel:</b>
+ * <pre>
+ * {@code
+ * ComparableVerifier
+ *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+ *     .parallel(ForkJoinPool.commonPool())
+ *     .verify();
+ * }
+ * </pre>
  * Please be aware that some of the checks done by this class expect that the
  * instances have a {@link Object#toString()} implementation. This is very
  * important as it is used for creating assertion messages.
@@ -106,10 +124,18 @@ public final class ComparableVerifier<A extends Comparable<A>> {
     private final VerificationInstancesCreator<A> greaterCreator;
     private final VerificationInstancesCreator<A> equalCreator;
 
-    private boolean suppressConsistentWithEquals = false;
+    private final VerificationOptions options = new VerificationOptions();
+
+    // null means that there are no additional instances
+    private VerificationInstancesCreator<A> additionalCreator = null;
+
     private boolean suppressEqualsToNullReturnsFalse = false;
     private boolean suppressExceptionOnCompareToNull = false;
 
+    // null means that every verification is run
+    private VerificationCache cache = null;
+    private Function<? super A, String> fingerprint = null;
+
     private ComparableVerifier(
             final VerificationInstancesCreator<A> lesserCreator,
             final VerificationInstancesCreator<A> equalCreator,
@@ -148,12 +174,20 @@ public final class ComparableVerifier<A extends Comparable<A>> {
      * It is advised that any class that implements the {@link Comparable}
      * interface and violates this particular rule should clearly indicate this
      * fact.
+     * <p>
+     * The rule is verified for all of the instances, not only the equal ones.
+     * The equals is called only for the instances that share a hash code and
+     * for the instances that compare as equal but have different hash codes,
+     * so the check makes O(n log n) comparisons and O(n) equals calls as long
+     * as the hash codes rarely collide. The instances that are equal but have
+     * different hash codes, which break the {@link Object#hashCode()}
+     * contract, are verified only within the equal instances.
      *
      * @param suppressCheck true if the rule should be suppressed.
      * @return instance of {@link ComparableVerifier}
      */
     public ComparableVerifier<A> suppressConsistentWithEquals(final boolean suppressCheck) {
-        suppressConsistentWithEquals = suppressCheck;
+        options.suppressConsistentWithEquals = suppressCheck;
         return this;
     }
 
@@ -184,139 +218,588 @@ public final class ComparableVerifier<A extends Comparable<A>> {
         return this;
     }
 
+    /**
+     * Causes that the instances of a failed verification are reported as
+     * found, without searching for a minimal counterexample.
+     * <p>
+     * By default the smallest subset of the at most three instances that
+     * witness a violation that still violates the contract on its own is
+     * appended to the assertion message.
+     * The shrinking reuses the results of the comparisons done by the
+     * verification, so it usually takes milliseconds.
+     *
+     * @param suppressCheck true if the shrinking should be suppressed.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> suppressShrinking(final boolean suppressCheck) {
+        options.suppressShrinking = suppressCheck;
+        return this;
+    }
+
+    /**
+     * Causes that the instances of the minimal counterexample are simplified
+     * with the given {@link Shrinker}, e.g. large numbers are replaced with
+     * smaller ones as long as the contract is still violated.
+     * <p>
+     * <b>Example Shrinking:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .shrinkWith(instance -> instance.value == 0
+     *         ? Collections.emptyList()
+     *         : Arrays.asList(new Foo(0), new Foo(instance.value / 2)))
+     *     .verify();
+     * }
+     * </pre>
+     *
+     * @param shrinker simplifies a single instance.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> shrinkWith(final Shrinker<A> shrinker) {
+        if (null == shrinker)
+            throw new IllegalArgumentException("Shrinker cannot be null!");
+
+        options.shrinker = shrinker;
+        return this;
+    }
+
+    /**
+     * Adds instances whose place in the order is not known up front, e.g.
+     * generated ones. They are verified to implement a total order together
+     * with all of the other instances, but they are not expected to be
+     * lesser, equal or greater than any group.
+     * <p>
+     * <b>Example Additional Instances:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .withAdditionalInstances(() -> Arrays.asList(new Foo(7), new Foo(-3)))
+     *     .verify();
+     * }
+     * </pre>
+     *
+     * @param additionalCreator "additional" instances factory
+     * @return instance of {@link ComparableVerifier}
+     * @see IncrementalComparableVerifier
+     */
+    public ComparableVerifier<A> withAdditionalInstances(final VerificationInstancesCreator<A> additionalCreator) {
+        if (null == additionalCreator)
+            throw new IllegalArgumentException("VerificationInstancesCreator (additional) cannot be null!");
+
+        this.additionalCreator = additionalCreator;
+        return this;
+    }
+
+    /**
+     * Causes that the instances are partitioned into the classes of the
+     * instances that compare as equal and the order is verified only on one
+     * representative of every class.
+     * <p>
+     * Every group of the instances is sorted and split into the classes
+     * first. The expensive checks then run on the representatives only, and
+     * every other instance is verified to compare as equal to itself and to
+     * compare to all of the representatives, including its own, like the
+     * representative of its class does.
+     * <p>
+     * Every instance is also compared to all of the other members of its
+     * class, so the cost grows with the number of the distinct values and
+     * with the squared sizes of the classes. The instances of two different
+     * classes that are not representatives are never compared to each
+     * other, they are expected to compare like their representatives do.
+     * Thus the compression is not equivalent to the full verification, it
+     * trades the coverage of those pairs for the speed when the creators
+     * return many duplicates.
+     * <p>
+     * <b>Example Compression:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .compressEquivalenceClasses(true)
+     *     .verify();
+     * }
+     * </pre>
+     *
+     * @param compress true if the order should be verified on the representatives.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> compressEquivalenceClasses(final boolean compress) {
+        options.compressEquivalenceClasses = compress;
+        return this;
+    }
+
+    /**
+     * Causes that the passed verifications are recorded in the given
+     * directory and skipped when the same verification is run again, e.g.
+     * by the next build.
+     * <p>
+     * A verification is the same when the bytecode of the classes of the
+     * instances, of the creators and the classes enclosing them, of the
+     * classes they reference and of the verifier is the same, the instances
+     * have the same {@link Object#toString()} representations and the checks
+     * are suppressed the same way. Thus the {@link Object#toString()} of the
+     * instances has to show all of the state that their compareTo and equals
+     * depend on, otherwise a verification of changed instances is skipped,
+     * use {@link #cacheResultsIn(File, Function)} for such instances. The
+     * classes of the platform are expected to change only with the JVM.
+     * <p>
+     * The failed verifications, the verifications with a latency budget,
+     * which depends on the machine, and the verifications with a time
+     * budget, which may only sample the instances, are never recorded.
+     * Classes whose bytecode cannot be read, e.g. generated ones or the
+     * creators implemented with lambdas, are always verified.
+     * <p>
+     * <b>Example Cache:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .cacheResultsIn(new File("build/compare-verifier"))
+     *     .verify();
+     * }
+     * </pre>
+     *
+     * @param directory directory of the recorded verifications.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> cacheResultsIn(final File directory) {
+        if (null == directory)
+            throw new IllegalArgumentException("Cache directory cannot be null!");
+
+        cache = new VerificationCache(directory);
+        fingerprint = null;
+        return this;
+    }
+
+    /**
+     * Works like {@link #cacheResultsIn(File)}, but the instances are
+     * identified by the given fingerprints instead of their
+     * {@link Object#toString()} representations. The fingerprint has to show
+     * all of the state that compareTo and equals of the instance depend on.
+     *
+     * @param directory   directory of the recorded verifications.
+     * @param fingerprint fingerprint of an instance.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> cacheResultsIn(final File directory,
+                                                final Function<? super A, String> fingerprint) {
+        if (null == fingerprint)
+            throw new IllegalArgumentException("Fingerprint cannot be null!");
+
+        cacheResultsIn(directory);
+        this.fingerprint = fingerprint;
+        return this;
+    }
+
+    /**
+     * Causes that the results of the comparisons are kept in a memory-mapped
+     * temporary file in the given directory when they need more than the
+     * given number of bytes of the heap.
+     * <p>
+     * Every pair of the instances takes 2 bits, so 100 000 instances need
+     * about 2.5GB. The file is split into segments of 1GB mapped with
+     * {@link java.nio.channels.FileChannel#map}, which lets the operating
+     * system page the results in and out instead of failing with an
+     * {@link OutOfMemoryError}. The pages that are never written are not
+     * allocated on the file systems that support sparse files. The pairs are
+     * walked row by row or in square tiles, so the recently touched pages are
+     * reused before they are evicted. The file is deleted as soon as it is
+     * mapped, or on exit on the platforms that cannot delete a mapped file.
+     * <p>
+     * When several pairs violate the antisymmetry, a spilled verification may
+     * report a different one of them than a verification on the heap.
+     * <p>
+     * <b>Example Spill:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .spillComparisonsTo(new File("build/tmp"), 256L << 20)
+     *     .verify();
+     * }
+     * </pre>
+     *
+     * @param directory      directory of the temporary file.
+     * @param heapLimitBytes maximum number of bytes of the results kept on the heap.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> spillComparisonsTo(final File directory, final long heapLimitBytes) {
+        if (null == directory)
+            throw new IllegalArgumentException("Spill directory cannot be null!");
+
+        if (heapLimitBytes < 0)
+            throw new IllegalArgumentException("Heap limit cannot be negative!");
+
+        options.spillDirectory = directory;
+        options.heapLimitBytes = heapLimitBytes;
+        return this;
+    }
+
+    /**
+     * Causes that the checks comparing the instances are split into work-stealing
+     * tasks executed by the given {@link ForkJoinPool}.
+     * <p>
+     * As soon as one of the tasks finds a violation the tasks that could only
+     * report a later one are cancelled. The reported violation is always the
+     * same as the one reported by the sequential verification.
+     *
+     * @param pool pool used for executing the checks.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> parallel(final ForkJoinPool pool) {
+        if (null == pool)
+            throw new IllegalArgumentException("ForkJoinPool cannot be null!");
+
+        options.pool = pool;
+        return this;
+    }
+
+    /**
+     * Causes that the order of the instances is verified within the given
+     * time budget, e.g. to keep a large verification from timing out a CI
+     * build.
+     * <p>
+     * The cheap checks, comparing the instances to null, the consistency
+     * with equals and the antisymmetry of every pair, always run to
+     * completion. The other checks run from the cheapest one by their
+     * estimated cost, each of them gets an equal share of the remaining
+     * time. A check verifies its pairs or triples in order as long as the
+     * time projected from the verified ones fits into its share, otherwise
+     * it verifies a pseudo-random sample of the rest until its share runs
+     * out. The covered fraction of every check is reported by
+     * {@link #verifyWithStatistics()}.
+     * <p>
+     * A sampled check may miss a violation. The budgeted checks compare the
+     * instances lazily on the calling thread, thus they are not split
+     * between the threads of the {@link #parallel(ForkJoinPool)} pool.
+     * <p>
+     * <b>Example Budget:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .withinBudget(10, TimeUnit.SECONDS)
+     *     .verifyWithStatistics();
+     * }
+     * </pre>
+     *
+     * @param duration time budget of the verification.
+     * @param unit     unit of the budget.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> withinBudget(final long duration, final TimeUnit unit) {
+        if (duration <= 0)
+            throw new IllegalArgumentException("Time budget must be positive!");
+
+        if (null == unit)
+            throw new IllegalArgumentException("TimeUnit cannot be null!");
+
+        options.budgetNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Causes that the verification fails if the latency of the comparisons at
+     * the given percentile exceeds the budget, e.g. because compareTo parses
+     * a string on every call. The budget is checked only after the order is
+     * verified.
+     * <p>
+     * The comparisons are warmed up first, then every pair of the instances
+     * is timed on the calling thread over a batch of comparisons. The
+     * latencies are recorded into a histogram with a relative error below
+     * 7%, the reported latency is the upper bound of the bucket.
+     * <p>
+     * <b>Example Latency Budget:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .maxCompareLatency(99, 200, TimeUnit.NANOSECONDS)
+     *     .verify();
+     * }
+     * </pre>
+     *
+     * @param percentile percentile of the comparisons in the range (0, 100].
+     * @param duration   latency budget of a single comparison.
+     * @param unit       unit of the budget.
+     * @return instance of {@link ComparableVerifier}
+     */
+    public ComparableVerifier<A> maxCompareLatency(final double percentile,
+                                                   final long duration,
+                                                   final TimeUnit unit) {
+        if (!(percentile > 0 && percentile <= 100))
+            throw new IllegalArgumentException("Percentile must be greater than 0 and at most 100!");
+
+        if (duration <= 0)
+            throw new IllegalArgumentException("Latency budget must be positive!");
+
+        if (null == unit)
+            throw new IllegalArgumentException("TimeUnit cannot be null!");
+
+        options.compareLatencyPercentile = percentile;
+        options.maxCompareLatencyNanos = unit.toNanos(duration);
+        return this;
+    }
+
     /**
      * Performs verification if the tested instances are in natural order thus
      * the {@link Comparable} interfaces is correctly implemented.
      */
     public void verify() {
-        // verify that the instances' creators are not null (obvious check)
-        // verify that the instances' List is not null (obvious check)
-        // verify that the instances' List has at least one element (obvious check)
-        final List<A> lesserInstances =
-                verifyInstancesCreator(lesserCreator, "lesser");
-        final List<A> equalInstances =
-                verifyInstancesCreator(equalCreator, "equal");
-        final List<A> greaterInstances =
-                verifyInstancesCreator(greaterCreator, "greater");
+        verify(createVerification());
+    }
+
+    /**
+     * Performs the same verification as {@link #verify()} and returns the
+     * number of the comparisons and the equals calls and the wall time of
+     * every check, e.g. to find the types that are the most expensive to
+     * verify. A verification skipped thanks to the cache has no checks.
+     * <p>
+     * <b>Example Statistics:</b>
+     * <pre>
+     * {@code
+     * VerificationStatistics statistics = ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .verifyWithStatistics();
+     * }
+     * </pre>
+     *
+     * @return statistics of the passed verification.
+     */
+    public VerificationStatistics verifyWithStatistics() {
+        final long start = System.nanoTime();
+        final Verification<A> verification = createVerification();
+        final VerificationStatistics statistics = verification.recordStatistics(System.nanoTime() - start);
+        verify(verification);
+        statistics.finish(System.nanoTime() - start);
+        return statistics;
+    }
+
+    private void verify(final Verification<A> verification) {
+        final String key = cacheKey(verification);
+        if (null != key && cache.contains(key))
+            return;
+
+        verifyClauses(verification);
+
+        // verify that the comparisons meet the latency budget
+        verification.verifyCompareLatency();
+
+        if (null != key)
+            cache.store(key);
+    }
+
+    // the settings that can change the result of the verification are a part of the key,
+    // a budgeted verification may pass without having verified all of the pairs
+    private String cacheKey(final Verification<A> verification) {
+        if (null == cache || 0 != options.maxCompareLatencyNanos || 0 != options.budgetNanos)
+            return null;
+
+        final List<VerificationInstancesCreator<A>> creators =
+                Arrays.asList(lesserCreator, equalCreator, greaterCreator, additionalCreator);
+        return cache.key(ComparableVerifier.class, creators, verification, fingerprint, format(
+                "consistentWithEquals=%b,equalsToNull=%b,compareToNull=%b,compress=%b",
+                options.suppressConsistentWithEquals,
+                suppressEqualsToNullReturnsFalse,
+                suppressExceptionOnCompareToNull,
+                options.compressEquivalenceClasses
+        ));
+    }
+
+    /**
+     * Performs the same verification as {@link #verify()}, but instead of
+     * failing on the first violation collects all of the violations into a
+     * report.
+     * For more information please check {@link #verifyAll(int)}
+     *
+     * @return report of the found violations.
+     */
+    public VerificationReport verifyAll() {
+        return verifyAll(VerificationReport.DEFAULT_MAX_VIOLATIONS_PER_CLAUSE);
+    }
+
+    /**
+     * Performs the same verification as {@link #verify()}, but instead of
+     * failing on the first violation collects all of the violations into a
+     * report, so a broken implementation can be fixed in a single round.
+     * <p>
+     * Only the given number of the first violations of every clause is
+     * stored, the rest is just counted. The messages are rendered only when
+     * they are requested from the report. A broken total order is still
+     * reported with its minimal counterexample, but the instances of the
+     * counterexamples are not shrunk and the latency budget is not verified.
+     * <p>
+     * <b>Example Report:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .verifyAll()
+     *     .assertPassed();
+     * }
+     * </pre>
+     *
+     * @param maxViolationsPerClause number of the stored violations of every clause.
+     * @return report of the found violations.
+     */
+    public VerificationReport verifyAll(final int maxViolationsPerClause) {
+        final Verification<A> verification = createVerification();
+        final VerificationReport report = verification.collectViolations(maxViolationsPerClause);
+        verifyClauses(verification);
+        return report;
+    }
 
+    private void verifyClauses(final Verification<A> verification) {
         // verify that the returned instances are consistent with equals
-        // we only check the instances created by the Equal instances creator
-        // as they are supposed to be the same in terms of equals implementation
-        verifyCompareToConsistentWithEquals(equalInstances);
+        verification.verifyConsistentWithEquals();
 
         // verify that the returned instances return false when checked for equality with null
-        verifyEqualsToNullReturnsFalse(lesserInstances);
-        verifyEqualsToNullReturnsFalse(equalInstances);
-        verifyEqualsToNullReturnsFalse(greaterInstances);
+        verification.startCheck();
+        verifyEqualsToNullReturnsFalse(verification);
+        verification.endCheck(VerificationClause.EQUALS_TO_NULL_RETURNS_FALSE.name());
 
         // verify that the returned instances throw an exception when compared to null
-        verifyExceptionOnCompareToNull(lesserInstances);
-        verifyExceptionOnCompareToNull(equalInstances);
-        verifyExceptionOnCompareToNull(greaterInstances);
+        verification.startCheck();
+        verifyExceptionOnCompareToNull(verification);
+        verification.endCheck(VerificationClause.EXCEPTION_ON_COMPARE_TO_NULL.name());
+
+        // verify sgn(a.compareTo(b)) == -sgn(b.compareTo(a)), transitivity and the total order
+        verification.verifyOrder();
+    }
 
-        // verify that sgn(a.compareTo(b)) == -sgn(b.compareTo(a))
-        verifyReverse(equalInstances, equalInstances);
-        verifyReverse(equalInstances, lesserInstances);
-        verifyReverse(equalInstances, greaterInstances);
-        verifyReverse(lesserInstances, greaterInstances);
+    /**
+     * Asserts that comparing any pair of the tested instances does not
+     * allocate memory.
+     * For more information please check {@link #assertAllocationFree(long)}
+     */
+    public void assertAllocationFree() {
+        assertAllocationFree(0);
+    }
 
-        // verify that sgn(a.compareTo(b)) > 0 && sgn(b.compareTo(c)) > 0 => sgn(a.compareTo(c)) > 0
-        verifyTransitivity(lesserInstances, equalInstances, greaterInstances);
+    /**
+     * Asserts that comparing any pair of the tested instances allocates at
+     * most the given number of bytes. A compareTo that boxes, formats strings
+     * or creates temporary arrays puts pressure on the garbage collector when
+     * it is called on a hot path, e.g. while sorting.
+     * <p>
+     * The allocations are measured with the thread allocation counters of
+     * {@link com.sun.management.ThreadMXBean} after the comparisons are
+     * warmed up, so the allocations removed by the JIT compiler are not
+     * reported. Every pair is compared many times, thus the check should be
+     * run for a moderate number of instances.
+     * <p>
+     * This check does not verify the order, it is meant to be used together
+     * with {@link #verify()}.
+     * <p>
+     * <b>Example Allocation Free:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .assertAllocationFree();
+     * }
+     * </pre>
+     *
+     * @param maxBytesPerComparison allowed allocation of a single comparison.
+     * @throws IllegalStateException if the JVM does not support the thread
+     *                               allocation counters.
+     */
+    public void assertAllocationFree(final long maxBytesPerComparison) {
+        if (maxBytesPerComparison < 0)
+            throw new IllegalArgumentException("Allowed allocation cannot be negative!");
 
-        // TODO: test sgn(a.compareTo(c)) == sgn(b.compareTo(c)) => sgn(a.compareTo(b)) == 0
+        createVerification().verifyAllocationFree(maxBytesPerComparison);
     }
 
-    // sgn(a.compareTo(b)) > 0 && sgn(b.compareTo(c)) > 0 => sgn(a.compareTo(c)) > 0
-    private void verifyTransitivity(final List<A> lesser,
-                                    final List<A> equal,
-                                    final List<A> greater) {
-        for (final A la : lesser) {
-            for (final A ea : equal) {
-                for (final A ga : greater) {
-                    final int equalToLesser = (int) Math.signum(ea.compareTo(la));
-                    final int greaterToEqual = (int) Math.signum(ga.compareTo(ea));
-                    final int greaterToLesser = (int) Math.signum(ga.compareTo(la));
-
-                    final boolean isTransitive =
-                            equalToLesser > 0
-                                    && greaterToEqual > 0
-                                    && greaterToLesser > 0;
-
-                    if (!isTransitive) {
-                        throw new AssertionError(
-                                format("Instances %s, %s, %s, are not transitive!", la, ea, ga)
-                        );
-                    }
-                }
-            }
-        }
+    /**
+     * Asserts that comparing the instances and checking them for equality
+     * from the given number of threads at once gives the same results as on
+     * a single thread. A compareTo that lazily caches derived state, e.g. a
+     * normalized form, can publish it half-initialized to the other threads.
+     * <p>
+     * The instances' creators are called twice. The first instances are
+     * compared on the calling thread, the others are compared by all of the
+     * threads, which are released together by a latch, so they race on the
+     * first comparisons. The creators should return new instances on every
+     * call, otherwise the lazily initialized state is already initialized
+     * when the threads start.
+     * <p>
+     * On Java 21 and later the threads are virtual, so even thousands of
+     * them can be used when the comparisons block, e.g. on I/O-backed
+     * fixtures.
+     * <p>
+     * This check does not verify the order, it is meant to be used together
+     * with {@link #verify()}.
+     * <p>
+     * <b>Example Stress:</b>
+     * <pre>
+     * {@code
+     * ComparableVerifier
+     *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+     *     .stressConcurrently(8);
+     * }
+     * </pre>
+     *
+     * @param threadCount number of the threads comparing the instances at once.
+     */
+    public void stressConcurrently(final int threadCount) {
+        if (threadCount < 2)
+            throw new IllegalArgumentException("Stress needs at least two threads!");
+
+        final Verification<A> baseline = createVerification();
+        baseline.verifyConcurrently(createVerification(), threadCount);
     }
 
-    // sgn(a.compareTo(b)) == -sgn(b.compareTo(a))
-    // a.compareTo(b) should throw exception iff b.compareTo(a) throws
-    private void verifyReverse(final List<A> first,
-                               final List<A> second) {
-        for (final A a : first) {
-            for (final A b : second) {
-                // getting info for sgn(a.compareTo(b)) part
-                int signOfAtoB = Integer.MIN_VALUE;
-                boolean exceptionOnAtoBCompare = false;
-                try {
-                    signOfAtoB = (int) Math.signum(a.compareTo(b));
-                } catch (final Exception exc) {
-                    exceptionOnAtoBCompare = true;
-                }
-
-                // getting info for sgn(b.compareTo(a)) part
-                int signOfBtoA = Integer.MAX_VALUE;
-                boolean exceptionOnBtoACompare = false;
-                try {
-                    signOfBtoA = (int) Math.signum(b.compareTo(a));
-                } catch (final Exception exc) {
-                    exceptionOnBtoACompare = true;
-                }
-
-                // if the a.compareTo(b) threw an exception but b.compareTo(a) did not
-                if (exceptionOnAtoBCompare && !exceptionOnBtoACompare) {
-                    throw new AssertionError(
-                            format("Comparing %s to %s threw an exception but %s to %s did not!", a, b, b, a)
-                    );
-                }
-                // if the b.compareTo(a) threw an exception but a.compareTo(b) did not
-                if (!exceptionOnAtoBCompare && exceptionOnBtoACompare) {
-                    throw new AssertionError(
-                            format("Comparing %s to %s threw an exception but %s to %s did not!", b, a, a, b)
-                    );
-                }
-                // if sgn(a.compareTo(b)) != -sgn(b.compareTo(a))
-                if (signOfAtoB != -signOfBtoA) {
-                    throw new AssertionError("Instances do not implement a total order!");
-                }
-            }
-        }
+    private Verification<A> createVerification() {
+        // verify that the instances' creators are not null (obvious check)
+        // verify that the instances' List is not null (obvious check)
+        // verify that the instances' List has at least one element (obvious check)
+        final List<A> lesserInstances =
+                Verification.verifyInstancesCreator(lesserCreator, "lesser");
+        final List<A> equalInstances =
+                Verification.verifyInstancesCreator(equalCreator, "equal");
+        final List<A> greaterInstances =
+                Verification.verifyInstancesCreator(greaterCreator, "greater");
+        final List<A> additionalInstances = null == additionalCreator
+                ? Collections.<A>emptyList()
+                : Verification.verifyInstancesCreator(additionalCreator, "additional");
+
+        return new Verification<A>(
+                Comparator.<A>naturalOrder(),
+                "CompareTo",
+                options,
+                lesserInstances,
+                equalInstances,
+                greaterInstances,
+                additionalInstances
+        );
     }
 
     @SuppressWarnings("ConstantConditions")
-    private void verifyEqualsToNullReturnsFalse(final List<A> instances) {
+    private void verifyEqualsToNullReturnsFalse(final Verification<A> instances) {
         if (suppressEqualsToNullReturnsFalse)
             return;
 
-        for (final A instance : instances) {
-            if (instance.equals(null)) {
-                throw new AssertionError("Instance is equal to null!");
+        for (int i = 0; i < instances.size(); i++) {
+            if (instances.instanceEquals(i, null)) {
+                instances.violation(VerificationClause.EQUALS_TO_NULL_RETURNS_FALSE, i,
+                        "Instance is equal to null!", i);
             }
         }
     }
 
     @SuppressWarnings({"ResultOfMethodCallIgnored", "ConstantConditions"})
-    private void verifyExceptionOnCompareToNull(final List<A> instances) {
+    private void verifyExceptionOnCompareToNull(final Verification<A> instances) {
         if (suppressExceptionOnCompareToNull)
             return;
 
-        for (final A instance : instances) {
+        for (int i = 0; i < instances.size(); i++) {
             boolean contractIsBroken;
+            instances.countComparison();
             try {
-                instance.compareTo(null);
+                instances.instance(i).compareTo(null);
                 contractIsBroken = true;
             } catch (final Exception exc) {
                 // this should throw an exception
@@ -324,42 +807,8 @@ public final class ComparableVerifier<A extends Comparable<A>> {
             }
 
             if (contractIsBroken)
-                throw new AssertionError("CompareTo null should throw an exception!");
+                instances.violation(VerificationClause.EXCEPTION_ON_COMPARE_TO_NULL, i,
+                        "CompareTo null should throw an exception!", i);
         }
     }
-
-    private void verifyCompareToConsistentWithEquals(final List<A> instances) {
-        if (suppressConsistentWithEquals)
-            return;
-
-        final A instance = instances.get(0);
-        for (final A a : instances) {
-            final boolean equals = instance.equals(a);
-            final boolean compareTo = instance.compareTo(a) == 0;
-            if (equals != compareTo)
-                throw new AssertionError("CompareTo is not consistent with equals!");
-        }
-    }
-
-    private static <A> List<A> verifyInstancesCreator(
-            final VerificationInstancesCreator<A> creator,
-            final String type
-    ) {
-        if (null == creator)
-            throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot be null!");
-
-        final List<A> instances = creator.create();
-        if (null == instances)
-            throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot return null instances!");
-
-        if (instances.isEmpty())
-            throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot return empty list of instances!");
-
-        for (final A instance : instances) {
-            if (null == instance)
-                throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot contain null instances!");
-        }
-
-        return instances;
-    }
 }
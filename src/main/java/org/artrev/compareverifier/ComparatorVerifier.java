@@ -0,0 +1,397 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ComparatorVerifier} is a tool that can be used in unit tests to verify
+ * if certain implementation of the {@link Comparator} interface is correct.
+ * <p>
+ * By default verifier performs following checks if the implementation:
+ * <ul>
+ * <li>satisfies {@code sgn(compare(a, b)) == -sgn(compare(b, a))}</li>
+ * <li>satisfies {@code sgn(compare(a, b)) == 0 => sgn(compare(a, c)) == sgn(compare(b, c))}</li>
+ * <li>satisfies {@code sgn(compare(a, b)) > 0 && sgn(compare(b, c)) > 0 => sgn(compare(a, c)) > 0}</li>
+ * <li>is consistent with equals</li>
+ * </ul>
+ * <p>
+ * If any of the above checks fails then an {@link AssertionError} will be thrown
+ * with an appropriate information about the cause.
+ * <p>
+ * The instances are created by three {@link VerificationInstancesCreator}s in
+ * the same way as for the {@link ComparableVerifier}, the "lesser", "equal"
+ * and "greater" instances are meant in terms of the verified comparator.
+ * <p>
+ * Unlike {@link Comparable}, a {@link Comparator} may permit comparison of
+ * null arguments, so the comparator is never called with a null.
+ * <p>
+ * <b>Basic Usage:</b>
+ * <pre>
+ * {@code
+ * ComparatorVerifier
+ *     .forInstances(Comparator.comparing(Foo::getName), lesserCreator, equalCreator, greaterCreator)
+ *     .verify();
+ * }
+ * </pre>
+ * Both verifiers run on the same verification core, so everything said about
+ * the {@link ComparableVerifier} applies here as well.
+ *
+ * @param <A> type of the instances compared by the comparator under test
+ * @see Comparator
+ * @see ComparableVerifier
+ * @see VerificationInstancesCreator
+ */
+public final class ComparatorVerifier<A> {
+    private final Comparator<? super A> comparator;
+    private final VerificationInstancesCreator<A> lesserCreator;
+    private final VerificationInstancesCreator<A> greaterCreator;
+    private final VerificationInstancesCreator<A> equalCreator;
+
+    private final VerificationOptions options = new VerificationOptions();
+
+    private ComparatorVerifier(
+            final Comparator<? super A> comparator,
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        this.comparator = comparator;
+        this.lesserCreator = lesserCreator;
+        this.greaterCreator = greaterCreator;
+        this.equalCreator = equalCreator;
+    }
+
+    /**
+     * Creates an instance of the {@link ComparatorVerifier}.
+     *
+     * @param comparator     comparator under test
+     * @param lesserCreator  "lesser" instances factory
+     * @param equalCreator   "equal" instances factory
+     * @param greaterCreator "greater" instances factory
+     * @param <A>            type of the instances compared by the comparator
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public static <A> ComparatorVerifier<A> forInstances(
+            final Comparator<? super A> comparator,
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        return new ComparatorVerifier<A>(
+                comparator, lesserCreator, equalCreator, greaterCreator
+        );
+    }
+
+    /**
+     * Causes that the (compare(a, b)==0) == (a.equals(b)) won't be verified.
+     * <p>
+     * According to the {@link Comparator} documentation caution should be
+     * exercised when a comparator that is not consistent with equals is used
+     * to order a sorted set or a sorted map.
+     *
+     * @param suppressCheck true if the rule should be suppressed.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> suppressConsistentWithEquals(final boolean suppressCheck) {
+        options.suppressConsistentWithEquals = suppressCheck;
+        return this;
+    }
+
+    /**
+     * Causes that the instances of a failed verification are reported as
+     * found, without searching for a minimal counterexample.
+     * For more information please check {@link ComparableVerifier#suppressShrinking(boolean)}
+     *
+     * @param suppressCheck true if the shrinking should be suppressed.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> suppressShrinking(final boolean suppressCheck) {
+        options.suppressShrinking = suppressCheck;
+        return this;
+    }
+
+    /**
+     * Causes that the instances of the minimal counterexample are simplified
+     * with the given {@link Shrinker}.
+     * For more information please check {@link ComparableVerifier#shrinkWith(Shrinker)}
+     *
+     * @param shrinker simplifies a single instance.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> shrinkWith(final Shrinker<A> shrinker) {
+        if (null == shrinker)
+            throw new IllegalArgumentException("Shrinker cannot be null!");
+
+        options.shrinker = shrinker;
+        return this;
+    }
+
+    /**
+     * Causes that the order is verified only on one representative of every
+     * class of the instances that compare as equal.
+     * For more information please check {@link ComparableVerifier#compressEquivalenceClasses(boolean)}
+     *
+     * @param compress true if the order should be verified on the representatives.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> compressEquivalenceClasses(final boolean compress) {
+        options.compressEquivalenceClasses = compress;
+        return this;
+    }
+
+    /**
+     * Causes that the results of the comparisons are kept in a memory-mapped
+     * temporary file in the given directory when they need more than the
+     * given number of bytes of the heap.
+     * For more information please check {@link ComparableVerifier#spillComparisonsTo(File, long)}
+     *
+     * @param directory      directory of the temporary file.
+     * @param heapLimitBytes maximum number of bytes of the results kept on the heap.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> spillComparisonsTo(final File directory, final long heapLimitBytes) {
+        if (null == directory)
+            throw new IllegalArgumentException("Spill directory cannot be null!");
+
+        if (heapLimitBytes < 0)
+            throw new IllegalArgumentException("Heap limit cannot be negative!");
+
+        options.spillDirectory = directory;
+        options.heapLimitBytes = heapLimitBytes;
+        return this;
+    }
+
+    /**
+     * Causes that the pair checks are split into work-stealing tasks executed
+     * by the given {@link ForkJoinPool}.
+     * For more information please check {@link ComparableVerifier#parallel(ForkJoinPool)}
+     *
+     * @param pool pool used for executing the checks.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> parallel(final ForkJoinPool pool) {
+        if (null == pool)
+            throw new IllegalArgumentException("ForkJoinPool cannot be null!");
+
+        options.pool = pool;
+        return this;
+    }
+
+    /**
+     * Causes that the order of the instances is verified within the given
+     * time budget, the expensive checks are sampled when the budget runs short.
+     * For more information please check {@link ComparableVerifier#withinBudget(long, TimeUnit)}
+     *
+     * @param duration time budget of the verification.
+     * @param unit     unit of the budget.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> withinBudget(final long duration, final TimeUnit unit) {
+        if (duration <= 0)
+            throw new IllegalArgumentException("Time budget must be positive!");
+
+        if (null == unit)
+            throw new IllegalArgumentException("TimeUnit cannot be null!");
+
+        options.budgetNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Causes that the verification fails if the latency of the comparisons at
+     * the given percentile exceeds the budget.
+     * For more information please check {@link ComparableVerifier#maxCompareLatency(double, long, TimeUnit)}
+     *
+     * @param percentile percentile of the comparisons in the range (0, 100].
+     * @param duration   latency budget of a single comparison.
+     * @param unit       unit of the budget.
+     * @return instance of {@link ComparatorVerifier}
+     */
+    public ComparatorVerifier<A> maxCompareLatency(final double percentile,
+                                                   final long duration,
+                                                   final TimeUnit unit) {
+        if (!(percentile > 0 && percentile <= 100))
+            throw new IllegalArgumentException("Percentile must be greater than 0 and at most 100!");
+
+        if (duration <= 0)
+            throw new IllegalArgumentException("Latency budget must be positive!");
+
+        if (null == unit)
+            throw new IllegalArgumentException("TimeUnit cannot be null!");
+
+        options.compareLatencyPercentile = percentile;
+        options.maxCompareLatencyNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Performs verification if the tested instances are ordered by the
+     * comparator thus the {@link Comparator} interface is correctly implemented.
+     */
+    public void verify() {
+        verify(createVerification());
+    }
+
+    /**
+     * Performs the same verification as {@link #verify()} and returns the
+     * number of the comparisons and the equals calls and the wall time of
+     * every check.
+     * For more information please check {@link ComparableVerifier#verifyWithStatistics()}
+     *
+     * @return statistics of the passed verification.
+     */
+    public VerificationStatistics verifyWithStatistics() {
+        final long start = System.nanoTime();
+        final Verification<A> verification = createVerification();
+        final VerificationStatistics statistics = verification.recordStatistics(System.nanoTime() - start);
+        verify(verification);
+        statistics.finish(System.nanoTime() - start);
+        return statistics;
+    }
+
+    private void verify(final Verification<A> verification) {
+        verifyClauses(verification);
+
+        // verify that the comparisons meet the latency budget
+        verification.verifyCompareLatency();
+    }
+
+    /**
+     * Performs the same verification as {@link #verify()}, but instead of
+     * failing on the first violation collects all of the violations into a
+     * report.
+     * For more information please check {@link ComparableVerifier#verifyAll(int)}
+     *
+     * @return report of the found violations.
+     */
+    public VerificationReport verifyAll() {
+        return verifyAll(VerificationReport.DEFAULT_MAX_VIOLATIONS_PER_CLAUSE);
+    }
+
+    /**
+     * Performs the same verification as {@link #verify()}, but instead of
+     * failing on the first violation collects all of the violations into a
+     * report.
+     * For more information please check {@link ComparableVerifier#verifyAll(int)}
+     *
+     * @param maxViolationsPerClause number of the stored violations of every clause.
+     * @return report of the found violations.
+     */
+    public VerificationReport verifyAll(final int maxViolationsPerClause) {
+        final Verification<A> verification = createVerification();
+        final VerificationReport report = verification.collectViolations(maxViolationsPerClause);
+        verifyClauses(verification);
+        return report;
+    }
+
+    private void verifyClauses(final Verification<A> verification) {
+        // verify that the returned instances are consistent with equals
+        verification.verifyConsistentWithEquals();
+
+        // verify sgn(compare(a, b)) == -sgn(compare(b, a)), transitivity and the total order
+        verification.verifyOrder();
+    }
+
+    /**
+     * Asserts that comparing any pair of the tested instances does not
+     * allocate memory.
+     * For more information please check {@link ComparableVerifier#assertAllocationFree(long)}
+     */
+    public void assertAllocationFree() {
+        assertAllocationFree(0);
+    }
+
+    /**
+     * Asserts that comparing any pair of the tested instances allocates at
+     * most the given number of bytes.
+     * For more information please check {@link ComparableVerifier#assertAllocationFree(long)}
+     *
+     * @param maxBytesPerComparison allowed allocation of a single comparison.
+     * @throws IllegalStateException if the JVM does not support the thread
+     *                               allocation counters.
+     */
+    public void assertAllocationFree(final long maxBytesPerComparison) {
+        if (maxBytesPerComparison < 0)
+            throw new IllegalArgumentException("Allowed allocation cannot be negative!");
+
+        createVerification().verifyAllocationFree(maxBytesPerComparison);
+    }
+
+    /**
+     * Asserts that comparing the instances and checking them for equality
+     * from the given number of threads at once gives the same results as on
+     * a single thread. A comparator that lazily caches derived state, e.g. a
+     * normalized form, can publish it half-initialized to the other threads.
+     * <p>
+     * The instances' creators are called twice. The first instances are
+     * compared on the calling thread, the others are compared by all of the
+     * threads, which are released together by a latch, so they race on the
+     * first comparisons. The creators should return new instances on every
+     * call, otherwise the lazily initialized state is already initialized
+     * when the threads start.
+     * <p>
+     * On Java 21 and later the threads are virtual, so even thousands of
+     * them can be used when the comparisons block, e.g. on I/O-backed
+     * fixtures.
+     * <p>
+     * This check does not verify the order, it is meant to be used together
+     * with {@link #verify()}.
+     * <p>
+     * <b>Example Stress:</b>
+     * <pre>
+     * {@code
+     * ComparatorVerifier
+     *     .forInstances(comparator, lesserCreator, equalCreator, greaterCreator)
+     *     .stressConcurrently(8);
+     * }
+     * </pre>
+     *
+     * @param threadCount number of the threads comparing the instances at once.
+     */
+    public void stressConcurrently(final int threadCount) {
+        if (threadCount < 2)
+            throw new IllegalArgumentException("Stress needs at least two threads!");
+
+        final Verification<A> baseline = createVerification();
+        baseline.verifyConcurrently(createVerification(), threadCount);
+    }
+
+    private Verification<A> createVerification() {
+        if (null == comparator)
+            throw new IllegalArgumentException("Comparator cannot be null!");
+
+        final List<A> lesserInstances =
+                Verification.verifyInstancesCreator(lesserCreator, "lesser");
+        final List<A> equalInstances =
+                Verification.verifyInstancesCreator(equalCreator, "equal");
+        final List<A> greaterInstances =
+                Verification.verifyInstancesCreator(greaterCreator, "greater");
+
+        return new Verification<A>(
+                comparator,
+                "Comparator",
+                options,
+                lesserInstances,
+                equalInstances,
+                greaterInstances
+        );
+    }
+}
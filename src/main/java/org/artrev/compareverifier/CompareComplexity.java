@@ -0,0 +1,60 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+/**
+ * Declared growth of the cost of a single comparison with the size of the
+ * compared instances, used by the {@link CompareCostProfiler}.
+ * <p>
+ * The declared complexity is an upper bound, a comparison declared as
+ * {@link #LINEAR} passes the verification if it takes constant time.
+ *
+ * @see CompareCostProfiler
+ */
+public enum CompareComplexity {
+    /**
+     * The comparison takes the same time for any size, e.g. compares a
+     * fixed number of fields.
+     */
+    CONSTANT("O(1)", 0),
+    /**
+     * The comparison takes time proportional to the size, e.g. compares
+     * strings sharing a prefix or walks a list of version numbers.
+     */
+    LINEAR("O(n)", 1),
+    /**
+     * The comparison takes time proportional to the square of the size.
+     */
+    QUADRATIC("O(n^2)", 2);
+
+    private final String notation;
+    private final int exponent;
+
+    CompareComplexity(final String notation, final int exponent) {
+        this.notation = notation;
+        this.exponent = exponent;
+    }
+
+    // the fitted exponent is rounded to the closest complexity
+    boolean allows(final double growthExponent) {
+        return growthExponent < exponent + 0.5;
+    }
+
+    @Override
+    public String toString() {
+        return notation;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import static java.lang.String.format;
+
+/**
+ * {@code CompareCostProfiler} is a tool that can be used in unit tests to
+ * verify how the cost of a comparison grows with the size of the compared
+ * instances, e.g. with the length of strings, paths or version lists.
+ * <p>
+ * The instances are created by three factories indexed by size, returning
+ * the "lesser", "equal" and "greater" {@link VerificationInstancesCreator}s
+ * for the given size. The profiler times the comparisons of all pairs of the
+ * instances at doubling sizes and fits the growth exponent {@code k} of
+ * {@code time = c * size^k} with least squares on the logarithms of both.
+ * The verification fails if the exponent is closer to a worse complexity
+ * than the declared one.
+ * <p>
+ * The comparisons are warmed up before the measurement and every size is
+ * measured several times, the fastest measurement is used as it is the least
+ * disturbed by the garbage collector and the other threads.
+ * <p>
+ * <b>Basic Usage:</b>
+ * <pre>
+ * {@code
+ * CompareCostProfiler
+ *     .forInstances(lesserFactory, equalFactory, greaterFactory)
+ *     .sizes(16, 4096)
+ *     .verify(CompareComplexity.LINEAR);
+ * }
+ * </pre>
+ *
+ * @param <A> type of the compared instances
+ * @see CompareComplexity
+ */
+public final class CompareCostProfiler<A> {
+    private static final int DEFAULT_MIN_SIZE = 16;
+    private static final int DEFAULT_MAX_SIZE = 4096;
+
+    private static final long WARM_UP_NANOS = 200000000L;
+    // every size is measured this many times, the fastest measurement wins
+    private static final int REPETITIONS = 5;
+    // a measurement repeats the comparisons for at least this long
+    private static final long MIN_MEASUREMENT_NANOS = 2000000L;
+
+    private static final LongSupplier SYSTEM_CLOCK = new LongSupplier() {
+        @Override
+        public long getAsLong() {
+            return System.nanoTime();
+        }
+    };
+
+    private final Comparator<? super A> comparator;
+    private final String comparison;
+    private final IntFunction<VerificationInstancesCreator<A>> lesserFactory;
+    private final IntFunction<VerificationInstancesCreator<A>> equalFactory;
+    private final IntFunction<VerificationInstancesCreator<A>> greaterFactory;
+
+    private int minSize = DEFAULT_MIN_SIZE;
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private LongSupplier clock = SYSTEM_CLOCK;
+
+    // consumes the results of the comparisons, so they cannot be eliminated
+    private int sink = 0;
+
+    private CompareCostProfiler(
+            final Comparator<? super A> comparator,
+            final String comparison,
+            final IntFunction<VerificationInstancesCreator<A>> lesserFactory,
+            final IntFunction<VerificationInstancesCreator<A>> equalFactory,
+            final IntFunction<VerificationInstancesCreator<A>> greaterFactory
+    ) {
+        this.comparator = comparator;
+        this.comparison = comparison;
+        this.lesserFactory = lesserFactory;
+        this.equalFactory = equalFactory;
+        this.greaterFactory = greaterFactory;
+    }
+
+    /**
+     * Creates an instance of the {@link CompareCostProfiler} for the natural
+     * order of the instances.
+     *
+     * @param lesserFactory  "lesser" instances factory for the given size
+     * @param equalFactory   "equal" instances factory for the given size
+     * @param greaterFactory "greater" instances factory for the given size
+     * @param <A>            type of the class under test
+     * @return instance of {@link CompareCostProfiler}
+     */
+    public static <A extends Comparable<A>> CompareCostProfiler<A> forInstances(
+            final IntFunction<VerificationInstancesCreator<A>> lesserFactory,
+            final IntFunction<VerificationInstancesCreator<A>> equalFactory,
+            final IntFunction<VerificationInstancesCreator<A>> greaterFactory
+    ) {
+        return new CompareCostProfiler<A>(
+                Comparator.<A>naturalOrder(), "CompareTo", lesserFactory, equalFactory, greaterFactory
+        );
+    }
+
+    /**
+     * Creates an instance of the {@link CompareCostProfiler} for the given
+     * comparator.
+     *
+     * @param comparator     comparator under test
+     * @param lesserFactory  "lesser" instances factory for the given size
+     * @param equalFactory   "equal" instances factory for the given size
+     * @param greaterFactory "greater" instances factory for the given size
+     * @param <A>            type of the instances compared by the comparator
+     * @return instance of {@link CompareCostProfiler}
+     */
+    public static <A> CompareCostProfiler<A> forInstances(
+            final Comparator<? super A> comparator,
+            final IntFunction<VerificationInstancesCreator<A>> lesserFactory,
+            final IntFunction<VerificationInstancesCreator<A>> equalFactory,
+            final IntFunction<VerificationInstancesCreator<A>> greaterFactory
+    ) {
+        if (null == comparator)
+            throw new IllegalArgumentException("Comparator cannot be null!");
+
+        return new CompareCostProfiler<A>(
+                comparator, "Comparator", lesserFactory, equalFactory, greaterFactory
+        );
+    }
+
+    /**
+     * Sets the range of the profiled sizes, the sizes start at the minimal
+     * size and are doubled as long as they do not exceed the maximal size.
+     *
+     * @param minSize the smallest profiled size.
+     * @param maxSize the upper bound of the profiled sizes.
+     * @return instance of {@link CompareCostProfiler}
+     */
+    public CompareCostProfiler<A> sizes(final int minSize, final int maxSize) {
+        if (minSize < 1)
+            throw new IllegalArgumentException("Size must be positive!");
+
+        if (maxSize / 2 < minSize)
+            throw new IllegalArgumentException("At least two sizes are needed to fit the growth!");
+
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    // replaces System.nanoTime(), so the tests can feed synthetic timings
+    CompareCostProfiler<A> clock(final LongSupplier clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    /**
+     * Performs verification if the cost of the comparison does not grow
+     * faster than declared.
+     *
+     * @param complexity declared upper bound of the growth.
+     */
+    public void verify(final CompareComplexity complexity) {
+        if (null == complexity)
+            throw new IllegalArgumentException("CompareComplexity cannot be null!");
+
+        final double exponent = growthExponent();
+        if (!complexity.allows(exponent))
+            throw new AssertionError(
+                    format("%s cost grows as size^%s for sizes from %d to %d but %s was declared!",
+                            comparison, Math.round(exponent * 100) / 100.0, minSize, lastSize(), complexity)
+            );
+    }
+
+    /**
+     * Measures the comparisons at all of the sizes and returns the fitted
+     * growth exponent, e.g. close to 1 for a linear comparison.
+     *
+     * @return growth exponent of the cost of a single comparison.
+     */
+    public double growthExponent() {
+        if (null == lesserFactory)
+            throw new IllegalArgumentException("Instances factory (lesser) cannot be null!");
+        if (null == equalFactory)
+            throw new IllegalArgumentException("Instances factory (equal) cannot be null!");
+        if (null == greaterFactory)
+            throw new IllegalArgumentException("Instances factory (greater) cannot be null!");
+
+        final List<List<A>> pools = new ArrayList<List<A>>();
+        final List<Integer> sizes = new ArrayList<Integer>();
+        for (int size = minSize; size <= maxSize && size > 0; size <<= 1) {
+            final List<A> pool = new ArrayList<A>();
+            pool.addAll(Verification.verifyInstancesCreator(lesserFactory.apply(size), "lesser"));
+            pool.addAll(Verification.verifyInstancesCreator(equalFactory.apply(size), "equal"));
+            pool.addAll(Verification.verifyInstancesCreator(greaterFactory.apply(size), "greater"));
+            pools.add(pool);
+            sizes.add(size);
+        }
+
+        // all of the sizes are warmed up, so the code is compiled for all of them
+        final long warmUpStart = clock.getAsLong();
+        while (clock.getAsLong() - warmUpStart < WARM_UP_NANOS) {
+            for (final List<A> pool : pools) {
+                compareAll(pool, 1);
+            }
+        }
+
+        final double[] logSizes = new double[pools.size()];
+        final double[] logNanos = new double[pools.size()];
+        for (int i = 0; i < pools.size(); i++) {
+            double fastest = Double.MAX_VALUE;
+            for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+                fastest = Math.min(fastest, nanosPerComparison(pools.get(i)));
+            }
+            logSizes[i] = Math.log(sizes.get(i));
+            // the comparisons faster than the clock resolution are not distinguished
+            logNanos[i] = Math.log(Math.max(fastest, 0.01));
+        }
+
+        return slope(logSizes, logNanos);
+    }
+
+    private double nanosPerComparison(final List<A> pool) {
+        long rounds = 1;
+        while (true) {
+            final long start = clock.getAsLong();
+            compareAll(pool, rounds);
+            final long nanos = clock.getAsLong() - start;
+            if (nanos >= MIN_MEASUREMENT_NANOS)
+                return (double) nanos / (rounds * pool.size() * pool.size());
+
+            rounds <<= 1;
+        }
+    }
+
+    private void compareAll(final List<A> pool, final long rounds) {
+        final int size = pool.size();
+        for (long round = 0; round < rounds; round++) {
+            for (int a = 0; a < size; a++) {
+                final A instance = pool.get(a);
+                for (int b = 0; b < size; b++) {
+                    sink += comparator.compare(instance, pool.get(b));
+                }
+            }
+        }
+    }
+
+    private int lastSize() {
+        int size = minSize;
+        while (size <= maxSize / 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    // least squares slope of y over x
+    static double slope(final double[] x, final double[] y) {
+        final int n = x.length;
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < n; i++) {
+            meanX += x[i] / n;
+            meanY += y[i] / n;
+        }
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < n; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            variance += (x[i] - meanX) * (x[i] - meanX);
+        }
+        return covariance / variance;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.lang.String.format;
+
+/**
+ * Verifies that comparing the instances from many threads at once gives the
+ * same results as comparing them on a single thread.
+ * <p>
+ * Instances that lazily cache derived state, e.g. a normalized form, inside
+ * compareTo or equals can publish it half-initialized when they are first
+ * used by several threads. The check therefore runs on freshly created
+ * instances that were never compared before. All of the threads are started
+ * first and released together by a latch, so they race on the first
+ * comparisons. The threads are started by {@link BlockingTasks}, which
+ * uses virtual threads on Java 21 and later. Every thread starts at a
+ * different row, compares every ordered pair {@link #PASSES} times and
+ * checks the results against the baseline computed on a single thread from
+ * another set of the instances.
+ * <p>
+ * Every thread remembers its first disagreement and the one of the lowest
+ * pair is reported, so a violation found by many threads is reported the
+ * same way regardless of which of them found it first.
+ *
+ * @param <A> type of the compared instances
+ */
+final class ConcurrencyCheck<A> {
+    // passes over all of the pairs done by every thread
+    private static final int PASSES = 4;
+
+    private final Comparator<? super A> comparator;
+    private final String comparison;
+    private final SignMatrix<A> baseline;
+    private final List<A> instances;
+    private final int size;
+    // bit j of row i is set if instance i equals instance j on a single thread
+    private final long[] equalities;
+    // bit j of row i is set if instance i threw when checked for equality with instance j
+    private final long[] equalsThrown;
+    private final int wordsPerRow;
+
+    ConcurrencyCheck(final Comparator<? super A> comparator,
+                     final String comparison,
+                     final SignMatrix<A> baseline,
+                     final List<A> instances) {
+        this.comparator = comparator;
+        this.comparison = comparison;
+        this.baseline = baseline;
+        this.instances = instances;
+        this.size = baseline.size();
+        this.wordsPerRow = (size + 63) >>> 6;
+        this.equalities = new long[wordsPerRow * size];
+        this.equalsThrown = new long[wordsPerRow * size];
+    }
+
+    /**
+     * Throws an {@link AssertionError} naming the lowest pair that a thread
+     * compared or checked for equality differently than a single thread,
+     * including a comparison or equals that threw on one of them only.
+     *
+     * @param threadCount number of the threads racing on the instances.
+     */
+    void verify(final int threadCount) {
+        if (instances.size() != size)
+            throw new IllegalStateException(
+                    "Instances' creators returned a different number of instances when called again!"
+            );
+
+        for (int a = 0; a < size; a++) {
+            final A instance = baseline.instance(a);
+            for (int b = 0; b < size; b++) {
+                baseline.signOrThrown(a, b);
+                final int equal = equalsOrThrown(instance, baseline.instance(b));
+                if (equal == SignMatrix.THROWN)
+                    equalsThrown[a * wordsPerRow + (b >>> 6)] |= 1L << b;
+                else if (equal == 1)
+                    equalities[a * wordsPerRow + (b >>> 6)] |= 1L << b;
+            }
+        }
+
+        // the last thread that is ready releases all of them
+        final CountDownLatch start = new CountDownLatch(threadCount);
+        final List<Racer> racers = new ArrayList<Racer>(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            racers.add(new Racer(t, threadCount, start));
+        }
+
+        try {
+            BlockingTasks.runAll("compare-verifier-stress", racers);
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the stress threads!", exc);
+        }
+
+        Racer first = null;
+        for (final Racer racer : racers) {
+            if (racer.error instanceof Error)
+                throw (Error) racer.error;
+            if (racer.error instanceof RuntimeException)
+                throw (RuntimeException) racer.error;
+
+            if (racer.key >= 0 && (null == first || racer.key < first.key))
+                first = racer;
+        }
+        if (null != first)
+            throw new AssertionError(first.message(threadCount));
+    }
+
+    private String describe(final int sign) {
+        return sign == SignMatrix.THROWN ? "threw an exception" : "returned " + sign;
+    }
+
+    private String describeEquals(final int equal) {
+        return equal == SignMatrix.THROWN ? "threw an exception" : "returned " + (equal == 1);
+    }
+
+    // 1 if the instances are equal, 0 if they are not, or THROWN
+    private static int equalsOrThrown(final Object first, final Object second) {
+        try {
+            return first.equals(second) ? 1 : 0;
+        } catch (final RuntimeException exc) {
+            return SignMatrix.THROWN;
+        }
+    }
+
+    // equality of the instances i and j on a single thread
+    private int baselineEquals(final int i, final int j) {
+        final long bit = 1L << j;
+        if ((equalsThrown[i * wordsPerRow + (j >>> 6)] & bit) != 0)
+            return SignMatrix.THROWN;
+
+        return (equalities[i * wordsPerRow + (j >>> 6)] & bit) != 0 ? 1 : 0;
+    }
+
+    // compares all of the pairs after the other threads are ready
+    private final class Racer implements Runnable {
+        private final int thread;
+        // offset of the first row compared by the thread
+        private final int offset;
+        private final CountDownLatch start;
+
+        // the first disagreement, key -1 means none
+        private long key = -1;
+        private int a = 0;
+        private int b = 0;
+        private boolean isEquals = false;
+        private int observed = 0;
+        private Throwable error = null;
+
+        Racer(final int thread,
+              final int threadCount,
+              final CountDownLatch start) {
+            this.thread = thread;
+            // the threads start at different rows, so the first comparisons
+            // of an instance are spread between them
+            this.offset = (int) ((long) size * thread / threadCount);
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.countDown();
+                start.await();
+                race();
+            } catch (final InterruptedException exc) {
+                Thread.currentThread().interrupt();
+            } catch (final Error | RuntimeException exc) {
+                error = exc;
+            }
+        }
+
+        private void race() {
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (int row = 0; row < size; row++) {
+                    final int i = (row + offset) % size;
+                    final A instance = instances.get(i);
+                    for (int j = 0; j < size; j++) {
+                        final int sign = compare(instance, instances.get(j));
+                        if (sign != baseline.signOrThrown(i, j))
+                            disagree(i, j, false, sign);
+
+                        final int equal = equalsOrThrown(instance, instances.get(j));
+                        if (equal != baselineEquals(i, j))
+                            disagree(i, j, true, equal);
+                    }
+                }
+            }
+        }
+
+        private int compare(final A first, final A second) {
+            try {
+                return Integer.signum(comparator.compare(first, second));
+            } catch (final RuntimeException exc) {
+                return SignMatrix.THROWN;
+            }
+        }
+
+        private void disagree(final int i, final int j, final boolean isEquals, final int observed) {
+            final long pair = (long) i * size + j;
+            if (key >= 0 && key <= pair)
+                return;
+
+            this.key = pair;
+            this.a = i;
+            this.b = j;
+            this.isEquals = isEquals;
+            this.observed = observed;
+        }
+
+        String message(final int threadCount) {
+            if (isEquals)
+                return format("Equals of %s to %s %s on thread %d of %d but %s on a single thread!",
+                        instances.get(a), instances.get(b), describeEquals(observed),
+                        thread + 1, threadCount, describeEquals(baselineEquals(a, b)));
+
+            return format("%s of %s to %s %s on thread %d of %d but %s on a single thread!",
+                    comparison, instances.get(a), instances.get(b), describe(observed),
+                    thread + 1, threadCount, describe(baseline.signOrThrown(a, b)));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Shrinks the witnesses of a {@link VerificationFailure} to a minimal
+ * counterexample that still violates the contract.
+ * <p>
+ * The witnesses of a failure are at most three instances, so every subset of
+ * them is tried, from the smallest one, then every instance is replaced with
+ * the simplest candidate of the {@link Shrinker}, if one is given, for which
+ * the instances still violate the contract, and the subsets of the simplified
+ * instances are tried again. The contract is checked without the groups of
+ * the instances, so a set violates it if:
+ * <ul>
+ * <li>comparing a pair throws an exception, in one or both directions, or</li>
+ * <li>the comparisons do not implement a total order</li>
+ * </ul>
+ * which is how the verification treats the instances of a single group.
+ * Witnesses that do not violate the contract on their own, e.g. a lesser
+ * instance that is greater than an equal one, are not shrunk.
+ * <p>
+ * The comparisons of the original instances are read from the
+ * {@link SignMatrix} of the verification, the other comparisons are
+ * memoized, so every pair is compared at most once during the shrinking.
+ * The number of the checked candidate sets is bounded by
+ * {@link #MAX_ATTEMPTS}.
+ *
+ * @param <A> type of the shrunk instances
+ */
+final class CounterexampleShrinking<A> {
+    private static final int MAX_ATTEMPTS = 1000;
+
+    private final SignMatrix<A> signs;
+    private final Comparator<? super A> comparator;
+    private final Shrinker<A> shrinker;
+    // the original instances are identified by their index in the matrix,
+    // the candidates created by the shrinker get the following ones
+    private final Map<A, Integer> ids = new IdentityHashMap<A, Integer>();
+    private final Map<Long, Integer> memo = new HashMap<Long, Integer>();
+    private final Map<Long, RuntimeException> thrown = new HashMap<Long, RuntimeException>();
+    private int attempts = 0;
+
+    CounterexampleShrinking(final SignMatrix<A> signs,
+                            final Comparator<? super A> comparator,
+                            final Shrinker<A> shrinker) {
+        this.signs = signs;
+        this.comparator = comparator;
+        this.shrinker = shrinker;
+        for (int i = 0; i < signs.size(); i++) {
+            ids.put(signs.instance(i), i);
+        }
+    }
+
+    /**
+     * Returns the failure with the minimal counterexample appended to the
+     * message, or the failure itself if the witnesses cannot be shrunk.
+     */
+    AssertionError shrink(final VerificationFailure failure) {
+        final List<A> witnesses = new ArrayList<A>();
+        for (final int witness : failure.witnesses) {
+            witnesses.add(signs.instance(witness));
+        }
+        if (!violates(witnesses))
+            return failure;
+
+        List<A> minimal = smallestViolatingSubset(witnesses);
+        if (null != shrinker)
+            minimal = smallestViolatingSubset(simplify(minimal));
+        if (minimal.size() == witnesses.size() && originals(minimal))
+            return failure;
+
+        return new AssertionError(
+                failure.getMessage() + " Minimal counterexample: " + describe(minimal),
+                failure
+        );
+    }
+
+    // returns the first of the smallest subsets that violates the contract,
+    // the subsets are enumerated as bit masks of the at most three instances
+    private List<A> smallestViolatingSubset(final List<A> instances) {
+        for (int size = 1; size < instances.size(); size++) {
+            for (int mask = 1; mask < 1 << instances.size(); mask++) {
+                if (Integer.bitCount(mask) != size)
+                    continue;
+
+                final List<A> subset = new ArrayList<A>(size);
+                for (int i = 0; i < instances.size(); i++) {
+                    if ((mask & 1 << i) != 0)
+                        subset.add(instances.get(i));
+                }
+                if (violates(subset))
+                    return subset;
+            }
+        }
+        return instances;
+    }
+
+    // replaces the instances with the simplest candidates that keep the violation
+    private List<A> simplify(final List<A> instances) {
+        final List<A> current = new ArrayList<A>(instances);
+        boolean improved = true;
+        while (improved && attempts < MAX_ATTEMPTS) {
+            improved = false;
+            for (int position = 0; position < current.size(); position++) {
+                final A original = current.get(position);
+                for (final A candidate : shrinker.shrink(original)) {
+                    if (attempts >= MAX_ATTEMPTS)
+                        break;
+
+                    current.set(position, candidate);
+                    if (violates(current)) {
+                        improved = true;
+                        break;
+                    }
+                    current.set(position, original);
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean violates(final List<A> instances) {
+        attempts++;
+        final SignMatrix<A> candidate = new SignMatrix<A>(instances, new Comparator<A>() {
+            @Override
+            public int compare(final A first, final A second) {
+                return memoizedCompare(first, second);
+            }
+        });
+
+        // a pair that threw in either direction is never antisymmetric
+        return null != OrderCycles.findCounterexample(candidate);
+    }
+
+    private int memoizedCompare(final A first, final A second) {
+        final int a = id(first);
+        final int b = id(second);
+        if (a < signs.size() && b < signs.size())
+            return signs.sign(a, b);
+
+        final long key = ((long) a << 32) | b;
+        final Integer known = memo.get(key);
+        if (null != known)
+            return known;
+        final RuntimeException exception = thrown.get(key);
+        if (null != exception)
+            throw exception;
+
+        final int sign;
+        try {
+            sign = Integer.signum(comparator.compare(first, second));
+        } catch (final RuntimeException exc) {
+            thrown.put(key, exc);
+            throw exc;
+        }
+        memo.put(key, sign);
+        return sign;
+    }
+
+    private int id(final A instance) {
+        final Integer id = ids.get(instance);
+        if (null != id)
+            return id;
+
+        final int next = signs.size() + ids.size();
+        ids.put(instance, next);
+        return next;
+    }
+
+    private boolean originals(final List<A> instances) {
+        for (final A instance : instances) {
+            if (id(instance) >= signs.size())
+                return false;
+        }
+        return true;
+    }
+
+    private String describe(final List<A> instances) {
+        final SignMatrix<A> minimal = new SignMatrix<A>(instances, new Comparator<A>() {
+            @Override
+            public int compare(final A first, final A second) {
+                return memoizedCompare(first, second);
+            }
+        });
+
+        final int[] counterexample = OrderCycles.findCounterexample(minimal);
+        final String pattern = Verification.counterexamplePattern(minimal, counterexample);
+        final Object[] witnessing = new Object[counterexample.length];
+        for (int i = 0; i < counterexample.length; i++) {
+            witnessing[i] = minimal.instance(counterexample[i]);
+        }
+        return format(pattern, witnessing);
+    }
+}
@@ -0,0 +1,270 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * {@code DifferentialVerifier} is a tool that can be used in unit tests to
+ * verify that an optimized comparison orders the instances exactly like a
+ * reference {@link Comparator}, e.g. that a hand-tuned {@code compareTo}
+ * can replace a readable {@code Comparator.comparing(...).thenComparing(...)}
+ * chain.
+ * <p>
+ * The reference is expected to be correct, so it is not verified itself.
+ * The signs of both comparisons are compared for:
+ * <ul>
+ * <li>all of the instances that are neighbours in the reference order, in
+ * both directions, which catches the differences in the tie-breaking and at
+ * the boundaries between the values</li>
+ * <li>all of the ordered pairs within the batches of the instances that
+ * follow each other in the created order, which for generated instances
+ * are random pairs</li>
+ * </ul>
+ * Thus the verification makes O(n log n) comparisons and scales to millions
+ * of generated instances. The pairs are split between the threads of a
+ * {@link ForkJoinPool} when one is given, the reported pairs are always the
+ * same as the ones reported by the sequential verification.
+ * <p>
+ * <b>Basic Usage:</b>
+ * <pre>
+ * {@code
+ * DifferentialVerifier
+ *     .forComparable(
+ *         Comparator.comparing(Order::getCustomer).thenComparingLong(Order::getTimestamp),
+ *         VerificationInstancesCreators.generated(42L, 1_000_000, Order::random, ForkJoinPool.commonPool()))
+ *     .parallel(ForkJoinPool.commonPool())
+ *     .verify();
+ * }
+ * </pre>
+ *
+ * @param <A> type of the compared instances
+ * @see ComparatorVerifier
+ */
+public final class DifferentialVerifier<A> {
+    /**
+     * Number of the instances in a batch whose all pairs are compared by
+     * default.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final Comparator<? super A> reference;
+    private final Comparator<? super A> optimized;
+    private final String comparison;
+    private final VerificationInstancesCreator<A> creator;
+
+    private ForkJoinPool pool = null;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private DifferentialVerifier(
+            final Comparator<? super A> reference,
+            final Comparator<? super A> optimized,
+            final String comparison,
+            final VerificationInstancesCreator<A> creator
+    ) {
+        this.reference = reference;
+        this.optimized = optimized;
+        this.comparison = comparison;
+        this.creator = creator;
+    }
+
+    /**
+     * Creates an instance of the {@link DifferentialVerifier} for a
+     * comparator.
+     *
+     * @param reference reference comparator.
+     * @param optimized comparator under test.
+     * @param creator   compared instances factory
+     * @param <A>       type of the compared instances
+     * @return instance of {@link DifferentialVerifier}
+     */
+    public static <A> DifferentialVerifier<A> forComparator(
+            final Comparator<? super A> reference,
+            final Comparator<? super A> optimized,
+            final VerificationInstancesCreator<A> creator
+    ) {
+        if (null == reference)
+            throw new IllegalArgumentException("Reference comparator cannot be null!");
+
+        if (null == optimized)
+            throw new IllegalArgumentException("Comparator cannot be null!");
+
+        if (null == creator)
+            throw new IllegalArgumentException("VerificationInstancesCreator (instances) cannot be null!");
+
+        return new DifferentialVerifier<A>(reference, optimized, "Comparator", creator);
+    }
+
+    /**
+     * Creates an instance of the {@link DifferentialVerifier} for an
+     * implementation of the {@link Comparable} interface.
+     *
+     * @param reference reference comparator.
+     * @param creator   compared instances factory
+     * @param <A>       type of the class under test
+     * @return instance of {@link DifferentialVerifier}
+     */
+    public static <A extends Comparable<A>> DifferentialVerifier<A> forComparable(
+            final Comparator<? super A> reference,
+            final VerificationInstancesCreator<A> creator
+    ) {
+        if (null == reference)
+            throw new IllegalArgumentException("Reference comparator cannot be null!");
+
+        if (null == creator)
+            throw new IllegalArgumentException("VerificationInstancesCreator (instances) cannot be null!");
+
+        return new DifferentialVerifier<A>(reference, Comparator.<A>naturalOrder(), "CompareTo", creator);
+    }
+
+    /**
+     * Causes that the pairs are split into work-stealing tasks executed by
+     * the given {@link ForkJoinPool}.
+     *
+     * @param pool pool used for executing the checks.
+     * @return instance of {@link DifferentialVerifier}
+     */
+    public DifferentialVerifier<A> parallel(final ForkJoinPool pool) {
+        if (null == pool)
+            throw new IllegalArgumentException("ForkJoinPool cannot be null!");
+
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Sets the number of the instances in a batch whose all pairs are
+     * compared, the number of the comparisons grows linearly with it.
+     *
+     * @param batchSize number of the instances in a batch.
+     * @return instance of {@link DifferentialVerifier}
+     */
+    public DifferentialVerifier<A> batchSize(final int batchSize) {
+        if (batchSize < 2)
+            throw new IllegalArgumentException("Batch size must be at least two!");
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Performs verification if the comparison orders the instances like the
+     * reference, the first pairs where the signs disagree are listed in the
+     * message of the {@link AssertionError}.
+     */
+    public void verify() {
+        verifyAll().assertPassed();
+    }
+
+    /**
+     * Performs verification if the comparison orders the instances like the
+     * reference and returns the report of the first
+     * {@link VerificationReport#DEFAULT_MAX_VIOLATIONS_PER_CLAUSE} pairs
+     * where the signs disagree.
+     *
+     * @return report of the pairs where the signs disagree.
+     */
+    public VerificationReport verifyAll() {
+        return verifyAll(VerificationReport.DEFAULT_MAX_VIOLATIONS_PER_CLAUSE);
+    }
+
+    /**
+     * Performs verification if the comparison orders the instances like the
+     * reference and returns the report of the first pairs where the signs
+     * disagree. The pairs of the neighbours in the reference order go first,
+     * then the pairs of the batches in the created order.
+     *
+     * @param maxReportedPairs number of the stored pairs.
+     * @return report of the pairs where the signs disagree.
+     */
+    public VerificationReport verifyAll(final int maxReportedPairs) {
+        final VerificationReport report = new VerificationReport(maxReportedPairs);
+        final List<A> instances = Verification.verifyInstancesCreator(creator, "instances");
+        final int size = instances.size();
+
+        final int[] order = IndexSort.sort(size, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(final int a, final int b) {
+                return reference.compare(instances.get(a), instances.get(b));
+            }
+        });
+
+        final long neighbours = 2L * (size - 1);
+        final int fullBatches = size / batchSize;
+        final int lastBatchSize = size % batchSize;
+        final long batchPairs = (long) batchSize * batchSize;
+        final IndexedCheck check = new IndexedCheck() {
+            @Override
+            long size() {
+                return neighbours + fullBatches * batchPairs + (long) lastBatchSize * lastBatchSize;
+            }
+
+            @Override
+            void verify(final long index) {
+                if (index < neighbours) {
+                    final int p = (int) (index >>> 1);
+                    if ((index & 1) == 0)
+                        compare(report, index, instances.get(order[p]), instances.get(order[p + 1]));
+                    else
+                        compare(report, index, instances.get(order[p + 1]), instances.get(order[p]));
+                    return;
+                }
+
+                final long inBatches = index - neighbours;
+                final int batch = (int) (inBatches / batchPairs);
+                final int currentBatchSize = batch < fullBatches ? batchSize : lastBatchSize;
+                final int pair = (int) (inBatches - batch * batchPairs);
+                final int from = batch * batchSize;
+                compare(report, index,
+                        instances.get(from + pair / currentBatchSize),
+                        instances.get(from + pair % currentBatchSize));
+            }
+        };
+
+        if (null == pool)
+            IndexedChecks.runSequentially(check);
+        else
+            IndexedChecks.runInParallel(pool, check);
+
+        return report;
+    }
+
+    // the exceptions thrown by the reference are rethrown, as it is
+    // expected to be correct
+    private void compare(final VerificationReport report,
+                         final long key,
+                         final A a,
+                         final A b) {
+        final int expected = Integer.signum(reference.compare(a, b));
+        final int actual;
+        try {
+            actual = Integer.signum(optimized.compare(a, b));
+        } catch (final RuntimeException exc) {
+            report.add(VerificationClause.SAME_ORDER_AS_REFERENCE, key,
+                    "Comparing %s to %s threw %s but the reference returned %s!",
+                    new Object[]{a, b, exc.getClass().getName(), expected});
+            return;
+        }
+
+        if (actual != expected)
+            report.add(VerificationClause.SAME_ORDER_AS_REFERENCE, key,
+                    "%s of %s to %s returned %s but the reference returned %s!",
+                    new Object[]{comparison, a, b, actual, expected});
+    }
+}
@@ -0,0 +1,340 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+import static java.lang.String.format;
+
+/**
+ * {@code HashCodeVerifier} is a tool that can be used in unit tests to verify
+ * that the hash codes of the instances are distributed well enough for a
+ * {@link HashMap} or a {@link java.util.HashSet}.
+ * <p>
+ * A poor distribution makes the keys collide in the same buckets of the
+ * table. Long chains are converted by the {@link HashMap} into trees ordered
+ * by {@link Comparable#compareTo(Object)}, so a lookup that should take a
+ * single equals call takes a logarithmic number of comparisons instead.
+ * <p>
+ * The verifier puts the distinct instances into a table of the size the
+ * {@link HashMap} would use for them with the default load factor, after
+ * applying the same spreading of the hash codes as the {@link HashMap} does.
+ * It checks that:
+ * <ul>
+ * <li>the equal instances have the same hash code</li>
+ * <li>no bucket holds more instances than the maximal chain length, by
+ * default {@value #DEFAULT_MAX_CHAIN_LENGTH} which is the longest chain that
+ * the {@link HashMap} never turns into a tree, a table of fewer than
+ * {@value #MIN_TREEIFY_CAPACITY} buckets with a longer chain is doubled
+ * first, like the {@link HashMap} resizes it instead of making a tree</li>
+ * <li>the chi-square score of the bucket sizes does not exceed the maximal
+ * score, by default {@value #DEFAULT_MAX_CHI_SQUARE_SCORE}</li>
+ * </ul>
+ * The chi-square score is the chi-square statistic of the bucket sizes
+ * standardized with its mean and standard deviation for uniformly
+ * distributed hash codes. Uniform hash codes have a score close to 0, a score
+ * of a few units means that the hash codes cluster in a part of the table.
+ * <p>
+ * The statistics are meaningful only for many instances, thus next to the
+ * instances used for the {@link ComparableVerifier} it is advised to add
+ * generated variants of them.
+ * <p>
+ * <b>Basic Usage:</b>
+ * <pre>
+ * {@code
+ * HashCodeVerifier
+ *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+ *     .withAdditionalInstances(generatedCreator)
+ *     .verify();
+ * }
+ * </pre>
+ *
+ * @param <A> type of the class under test
+ * @see ComparableVerifier
+ */
+public final class HashCodeVerifier<A> {
+    /**
+     * Number of keys a bucket holds before the {@link HashMap} turns it into
+     * a tree on adding another key.
+     */
+    public static final int DEFAULT_MAX_CHAIN_LENGTH = 8;
+    /**
+     * Chi-square score that uniformly distributed hash codes exceed with a
+     * negligible probability.
+     */
+    public static final double DEFAULT_MAX_CHI_SQUARE_SCORE = 4.0;
+
+    // the same as the defaults of HashMap
+    private static final int MIN_TABLE_SIZE = 16;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MIN_TREEIFY_CAPACITY = 64;
+
+    private final VerificationInstancesCreator<A> lesserCreator;
+    private final VerificationInstancesCreator<A> equalCreator;
+    private final VerificationInstancesCreator<A> greaterCreator;
+    private final List<VerificationInstancesCreator<A>> additionalCreators =
+            new ArrayList<VerificationInstancesCreator<A>>();
+
+    private int maxChainLength = DEFAULT_MAX_CHAIN_LENGTH;
+    private double maxChiSquareScore = DEFAULT_MAX_CHI_SQUARE_SCORE;
+
+    private HashCodeVerifier(
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        this.lesserCreator = lesserCreator;
+        this.equalCreator = equalCreator;
+        this.greaterCreator = greaterCreator;
+    }
+
+    /**
+     * Creates an instance of the {@link HashCodeVerifier} for the same
+     * instances as used by the {@link ComparableVerifier}.
+     *
+     * @param lesserCreator  "lesser" instances factory
+     * @param equalCreator   "equal" instances factory
+     * @param greaterCreator "greater" instances factory
+     * @param <A>            type of the class under test
+     * @return instance of {@link HashCodeVerifier}
+     */
+    public static <A> HashCodeVerifier<A> forInstances(
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        return new HashCodeVerifier<A>(
+                lesserCreator, equalCreator, greaterCreator
+        );
+    }
+
+    /**
+     * Adds instances, e.g. generated variants of the tested instances, that
+     * are put into the table together with the other instances.
+     *
+     * @param creator additional instances factory
+     * @return instance of {@link HashCodeVerifier}
+     */
+    public HashCodeVerifier<A> withAdditionalInstances(final VerificationInstancesCreator<A> creator) {
+        if (null == creator)
+            throw new IllegalArgumentException("VerificationInstancesCreator (additional) cannot be null!");
+
+        additionalCreators.add(creator);
+        return this;
+    }
+
+    /**
+     * Sets the maximal number of the instances that may fall into a single
+     * bucket of the table.
+     *
+     * @param maxChainLength maximal number of instances in a bucket.
+     * @return instance of {@link HashCodeVerifier}
+     */
+    public HashCodeVerifier<A> maxChainLength(final int maxChainLength) {
+        if (maxChainLength < 1)
+            throw new IllegalArgumentException("Chain length must be positive!");
+
+        this.maxChainLength = maxChainLength;
+        return this;
+    }
+
+    /**
+     * Sets the maximal chi-square score of the bucket sizes.
+     *
+     * @param maxChiSquareScore maximal standardized chi-square statistic.
+     * @return instance of {@link HashCodeVerifier}
+     */
+    public HashCodeVerifier<A> maxChiSquareScore(final double maxChiSquareScore) {
+        if (!(maxChiSquareScore > 0))
+            throw new IllegalArgumentException("Chi-square score must be positive!");
+
+        this.maxChiSquareScore = maxChiSquareScore;
+        return this;
+    }
+
+    /**
+     * Performs verification if the hash codes of the tested instances are
+     * distributed well enough for a {@link HashMap}.
+     */
+    public void verify() {
+        final List<A> lesserInstances =
+                Verification.verifyInstancesCreator(lesserCreator, "lesser");
+        final List<A> equalInstances =
+                Verification.verifyInstancesCreator(equalCreator, "equal");
+        final List<A> greaterInstances =
+                Verification.verifyInstancesCreator(greaterCreator, "greater");
+
+        // verify that the equal instances have the same hash code
+        final A equal = equalInstances.get(0);
+        for (final A instance : equalInstances) {
+            if (equal.hashCode() != instance.hashCode())
+                throw new AssertionError(
+                        format("Instances %s, %s, are equal but have different hash codes!", equal, instance)
+                );
+        }
+
+        final List<A> instances = new ArrayList<A>(lesserInstances);
+        instances.addAll(equalInstances);
+        instances.addAll(greaterInstances);
+        for (final VerificationInstancesCreator<A> creator : additionalCreators) {
+            instances.addAll(Verification.verifyInstancesCreator(creator, "additional"));
+        }
+
+        final int[] hashes = distinctHashes(instances);
+        final int keys = hashes.length;
+        int tableSize = tableSize(keys);
+        int[] buckets = bucketSizes(hashes, tableSize);
+        int longest = longestBucket(buckets);
+
+        // a small table is resized instead of turning a long chain into a tree
+        while (buckets[longest] > maxChainLength && tableSize < MIN_TREEIFY_CAPACITY) {
+            tableSize <<= 1;
+            buckets = bucketSizes(hashes, tableSize);
+            longest = longestBucket(buckets);
+        }
+
+        // verify that no bucket would be turned into a tree
+        if (buckets[longest] > maxChainLength) {
+            final A first = instanceInBucket(instances, longest, tableSize, null);
+            throw new AssertionError(
+                    format("%d instances fall into the same bucket of a HashMap with %d buckets, e.g. %s, %s!",
+                            buckets[longest], tableSize,
+                            first, instanceInBucket(instances, longest, tableSize, first))
+            );
+        }
+
+        // verify that the hash codes are spread over the whole table
+        final double score = chiSquareScore(buckets, keys);
+        if (score > maxChiSquareScore)
+            throw new AssertionError(
+                    format("Hash codes of %d instances are not uniformly distributed over a HashMap with %d buckets, chi-square score %s exceeds %s!",
+                            keys, tableSize, Math.round(score * 100) / 100.0, maxChiSquareScore)
+            );
+    }
+
+    // hash codes of the instances, the equal instances are counted once as
+    // the table keeps just one of them
+    private static <A> int[] distinctHashes(final List<A> instances) {
+        final int size = instances.size();
+        final int[] hashes = new int[size];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = instances.get(i).hashCode();
+        }
+
+        // only the instances with the same hash code have to be checked by equals
+        final int[] order = IndexSort.sort(size, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(final int a, final int b) {
+                return Integer.compare(hashes[a], hashes[b]);
+            }
+        });
+
+        final int[] distinct = new int[size];
+        int count = 0;
+        for (int from = 0, to; from < size; from = to) {
+            to = from + 1;
+            while (to < size && hashes[order[to]] == hashes[order[from]]) {
+                to++;
+            }
+            for (int p = from; p < to; p++) {
+                if (!equalsAnyBefore(instances, order, from, p))
+                    distinct[count++] = hashes[order[p]];
+            }
+        }
+
+        final int[] result = new int[count];
+        System.arraycopy(distinct, 0, result, 0, count);
+        return result;
+    }
+
+    private static <A> boolean equalsAnyBefore(final List<A> instances,
+                                               final int[] order,
+                                               final int from,
+                                               final int p) {
+        final A instance = instances.get(order[p]);
+        for (int q = from; q < p; q++) {
+            if (instance.equals(instances.get(order[q])))
+                return true;
+        }
+        return false;
+    }
+
+    // the first instance in the bucket that is not equal to the other one
+    private static <A> A instanceInBucket(final List<A> instances,
+                                          final int bucket,
+                                          final int tableSize,
+                                          final A other) {
+        for (final A instance : instances) {
+            if (bucket(instance.hashCode(), tableSize) == bucket && !instance.equals(other))
+                return instance;
+        }
+        return null;
+    }
+
+    private static int[] bucketSizes(final int[] hashes, final int tableSize) {
+        final int[] buckets = new int[tableSize];
+        for (final int hash : hashes) {
+            buckets[bucket(hash, tableSize)]++;
+        }
+        return buckets;
+    }
+
+    private static int longestBucket(final int[] buckets) {
+        int longest = 0;
+        for (int bucket = 1; bucket < buckets.length; bucket++) {
+            if (buckets[bucket] > buckets[longest])
+                longest = bucket;
+        }
+        return longest;
+    }
+
+    // the smallest power of two table that holds the keys below the load factor
+    static int tableSize(final int keys) {
+        int tableSize = MIN_TABLE_SIZE;
+        while (tableSize * LOAD_FACTOR < keys && tableSize < (1 << 30)) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    // the same spreading of the higher bits as done by HashMap.hash
+    static int bucket(final int hashCode, final int tableSize) {
+        return (hashCode ^ (hashCode >>> 16)) & (tableSize - 1);
+    }
+
+    // the chi-square statistic of n keys thrown uniformly into k buckets has
+    // the mean (k - 1) and the variance 2 (k - 1) (1 - 1 / n), k is the
+    // table size and n the number of the keys
+    static double chiSquareScore(final int[] buckets, final int keys) {
+        if (keys < 2)
+            return 0;
+
+        final int tableSize = buckets.length;
+        final double expected = (double) keys / tableSize;
+        double chiSquare = 0;
+        for (final int bucket : buckets) {
+            final double difference = bucket - expected;
+            chiSquare += difference * difference / expected;
+        }
+
+        final double degreesOfFreedom = tableSize - 1;
+        final double deviation = Math.sqrt(2 * degreesOfFreedom * (1 - 1.0 / keys));
+        return (chiSquare - degreesOfFreedom) / deviation;
+    }
+}
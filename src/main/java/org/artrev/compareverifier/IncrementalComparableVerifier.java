@@ -0,0 +1,408 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * {@code IncrementalComparableVerifier} is a tool that can be used in unit
+ * tests to verify an implementation of the {@link Comparable} interface on a
+ * set of instances that grows over time, e.g. while instances are generated
+ * until a coverage goal is reached.
+ * <p>
+ * The lesser, equal and greater instances are verified once, like by the
+ * {@link ComparableVerifier}. The verified instances are then kept sorted
+ * into the ranks of the instances that compare as equal, and every
+ * {@link #add(Comparable[])} compares only the new instances to all of the
+ * kept ones instead of verifying every pair and triple again.
+ * <p>
+ * It is enough, because a verified total order has a single place for every
+ * new instance: the new instance has to compare the same way to all of the
+ * instances of a rank, be greater than all of the ranks before its place and
+ * lesser than all of the ranks after it. Thus every {@link #add(Comparable[])}
+ * makes O(n) comparisons per new instance instead of the O(n^2) comparisons
+ * of a full verification, and it passes if and only if
+ * <pre>
+ * {@code
+ * ComparableVerifier
+ *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+ *     .withAdditionalInstances(VerificationInstancesCreators.from(allAddedInstances))
+ *     .verify();
+ * }
+ * </pre>
+ * passes with the same checks suppressed, as long as the hash codes of the
+ * instances are consistent with equals. The violation reported first may
+ * differ, as the pairs are compared in a different order.
+ * <p>
+ * <b>Basic Usage:</b>
+ * <pre>
+ * {@code
+ * final IncrementalComparableVerifier<Foo> verifier =
+ *     IncrementalComparableVerifier.forInstances(lesserCreator, equalCreator, greaterCreator);
+ * while (!coverage.isReached()) {
+ *     verifier.add(generator.next(), generator.next());
+ * }
+ * }
+ * </pre>
+ * A failed {@link #add(Comparable[])} keeps none of its instances, so the
+ * verifier can be used further with other instances.
+ *
+ * @param <A> type of the class under test
+ * @see ComparableVerifier
+ */
+public final class IncrementalComparableVerifier<A extends Comparable<A>> {
+    private final VerificationInstancesCreator<A> lesserCreator;
+    private final VerificationInstancesCreator<A> equalCreator;
+    private final VerificationInstancesCreator<A> greaterCreator;
+
+    private boolean suppressConsistentWithEquals = false;
+    private boolean suppressEqualsToNullReturnsFalse = false;
+    private boolean suppressExceptionOnCompareToNull = false;
+
+    // verified instances sorted into the ranks of the equal ones, null
+    // until the instances of the creators are verified
+    private List<List<A>> ranks = null;
+    // verified instances by their hash codes
+    private final Map<Integer, List<A>> buckets = new HashMap<Integer, List<A>>();
+    private int size = 0;
+
+    private IncrementalComparableVerifier(
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        this.lesserCreator = lesserCreator;
+        this.equalCreator = equalCreator;
+        this.greaterCreator = greaterCreator;
+    }
+
+    /**
+     * Creates an instance of the {@link IncrementalComparableVerifier}.
+     *
+     * @param lesserCreator  "lesser" instances factory
+     * @param equalCreator   "equal" instances factory
+     * @param greaterCreator "greater" instances factory
+     * @param <A>            type of the class under test
+     * @return instance of {@link IncrementalComparableVerifier}
+     */
+    public static <A extends Comparable<A>> IncrementalComparableVerifier<A> forInstances(
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        return new IncrementalComparableVerifier<A>(
+                lesserCreator, equalCreator, greaterCreator
+        );
+    }
+
+    /**
+     * Causes that the (a.compareTo(b)==0) == (a.equals(b)) won't be verified.
+     *
+     * @param suppressCheck true if the check should be suppressed.
+     * @return instance of {@link IncrementalComparableVerifier}
+     * @see ComparableVerifier#suppressConsistentWithEquals(boolean)
+     */
+    public IncrementalComparableVerifier<A> suppressConsistentWithEquals(final boolean suppressCheck) {
+        suppressConsistentWithEquals = suppressCheck;
+        return this;
+    }
+
+    /**
+     * Causes that the a.compareTo(null) throws exception won't be verified.
+     *
+     * @param suppressCheck true if the check should be suppressed.
+     * @return instance of {@link IncrementalComparableVerifier}
+     * @see ComparableVerifier#suppressExceptionOnCompareToNull(boolean)
+     */
+    public IncrementalComparableVerifier<A> suppressExceptionOnCompareToNull(final boolean suppressCheck) {
+        suppressExceptionOnCompareToNull = suppressCheck;
+        return this;
+    }
+
+    /**
+     * Causes that the a.equals(null) returns false won't be verified.
+     *
+     * @param suppressCheck true if the check should be suppressed.
+     * @return instance of {@link IncrementalComparableVerifier}
+     * @see ComparableVerifier#suppressEqualsToNullReturnsFalse(boolean)
+     */
+    public IncrementalComparableVerifier<A> suppressEqualsToNullReturnsFalse(final boolean suppressCheck) {
+        suppressEqualsToNullReturnsFalse = suppressCheck;
+        return this;
+    }
+
+    /**
+     * Performs the full verification of the instances returned by the
+     * creators, unless they were already verified.
+     */
+    public void verify() {
+        if (null != ranks)
+            return;
+
+        final List<A> lesserInstances =
+                Verification.verifyInstancesCreator(lesserCreator, "lesser");
+        final List<A> equalInstances =
+                Verification.verifyInstancesCreator(equalCreator, "equal");
+        final List<A> greaterInstances =
+                Verification.verifyInstancesCreator(greaterCreator, "greater");
+
+        ComparableVerifier
+                .forInstances(
+                        created(lesserInstances),
+                        created(equalInstances),
+                        created(greaterInstances)
+                )
+                .suppressConsistentWithEquals(suppressConsistentWithEquals)
+                .suppressEqualsToNullReturnsFalse(suppressEqualsToNullReturnsFalse)
+                .suppressExceptionOnCompareToNull(suppressExceptionOnCompareToNull)
+                .verify();
+
+        // the order is verified, so the sort cannot fail
+        final List<A> sorted = new ArrayList<A>(
+                lesserInstances.size() + equalInstances.size() + greaterInstances.size()
+        );
+        sorted.addAll(lesserInstances);
+        sorted.addAll(equalInstances);
+        sorted.addAll(greaterInstances);
+        Collections.sort(sorted, Comparator.<A>naturalOrder());
+
+        final List<List<A>> sortedRanks = new ArrayList<List<A>>();
+        for (final A instance : sorted) {
+            final List<A> last = sortedRanks.isEmpty() ? null : sortedRanks.get(sortedRanks.size() - 1);
+            if (null != last && last.get(0).compareTo(instance) == 0)
+                last.add(instance);
+            else
+                sortedRanks.add(new ArrayList<A>(Collections.singletonList(instance)));
+        }
+
+        for (final A instance : sorted) {
+            bucket(instance).add(instance);
+        }
+        ranks = sortedRanks;
+        size = sorted.size();
+    }
+
+    /**
+     * Verifies the given instances together with all of the instances that
+     * were verified before and keeps them for the next verifications. The
+     * instances returned by the creators are verified first if they were
+     * not verified yet.
+     *
+     * @param instances instances to add.
+     * @return instance of {@link IncrementalComparableVerifier}
+     */
+    @SafeVarargs
+    public final IncrementalComparableVerifier<A> add(final A... instances) {
+        if (null == instances)
+            throw new IllegalArgumentException("Added instances cannot be null!");
+        for (final A instance : instances) {
+            if (null == instance)
+                throw new IllegalArgumentException("Added instances cannot contain null instances!");
+        }
+
+        verify();
+
+        // ranks of the instances inserted so far, negative for a new rank
+        final int[] inserted = new int[instances.length];
+        int count = 0;
+        try {
+            for (final A instance : instances) {
+                inserted[count] = insert(instance);
+                count++;
+            }
+        } catch (final RuntimeException | AssertionError exc) {
+            // a failed call keeps none of its instances
+            while (count > 0) {
+                count--;
+                remove(instances[count], inserted[count]);
+            }
+            throw exc;
+        }
+
+        size += instances.length;
+        return this;
+    }
+
+    /**
+     * @return number of the verified instances.
+     */
+    public int size() {
+        return size;
+    }
+
+    // verifies the instance against all of the ranks and inserts it in its
+    // place, returns the rank it was added to or -1 - rank of a new rank
+    private int insert(final A instance) {
+        verifyNullContract(instance);
+        if (compare(instance, instance) != 0)
+            throw new AssertionError("Instances do not implement a total order!");
+
+        // the lowest rank that is not lesser than the instance
+        int place = -1;
+        int placeSign = 0;
+        for (int r = 0; r < ranks.size(); r++) {
+            final List<A> rank = ranks.get(r);
+            final int sign = compare(instance, rank.get(0));
+            for (int i = 1; i < rank.size(); i++) {
+                if (compare(instance, rank.get(i)) != sign)
+                    throw new AssertionError(
+                            format("Instances %s, %s, compare as equal but differently to %s!",
+                                    rank.get(0), rank.get(i), instance)
+                    );
+            }
+
+            // every rank after the place has to be greater than the instance
+            if (place != -1 && sign >= 0)
+                throw new AssertionError(
+                        format("Instances %s, %s, %s, are not transitive!",
+                                rank.get(0), instance, ranks.get(place).get(0))
+                );
+            if (place == -1 && sign <= 0) {
+                place = r;
+                placeSign = sign;
+            }
+        }
+
+        if (!suppressConsistentWithEquals)
+            verifyConsistentWithEquals(instance, place != -1 && placeSign == 0 ? ranks.get(place) : null);
+        bucket(instance).add(instance);
+
+        if (place == -1) {
+            ranks.add(new ArrayList<A>(Collections.singletonList(instance)));
+            return -1 - (ranks.size() - 1);
+        }
+        if (placeSign == 0) {
+            ranks.get(place).add(instance);
+            return place;
+        }
+        ranks.add(place, new ArrayList<A>(Collections.singletonList(instance)));
+        return -1 - place;
+    }
+
+    // (a.compareTo(b) == 0) == a.equals(b) for the instances with the same
+    // hash code, and the instances that compare as equal but have different
+    // hash codes have to be equal anyway, like in the full verification
+    private void verifyConsistentWithEquals(final A instance, final List<A> equalRank) {
+        final int hash = instance.hashCode();
+        for (final A other : bucket(instance)) {
+            if (instance.equals(other) != (compare(instance, other) == 0))
+                throw new AssertionError("CompareTo is not consistent with equals!");
+        }
+        if (null == equalRank)
+            return;
+
+        for (final A other : equalRank) {
+            if (other.hashCode() != hash) {
+                if (!instance.equals(other))
+                    throw new AssertionError("CompareTo is not consistent with equals!");
+                return;
+            }
+        }
+    }
+
+    private List<A> bucket(final A instance) {
+        final Integer hash = instance.hashCode();
+        List<A> bucket = buckets.get(hash);
+        if (null == bucket) {
+            bucket = new ArrayList<A>();
+            buckets.put(hash, bucket);
+        }
+        return bucket;
+    }
+
+    private void remove(final A instance, final int rank) {
+        final List<A> bucket = bucket(instance);
+        bucket.remove(bucket.size() - 1);
+
+        if (rank < 0) {
+            ranks.remove(-1 - rank);
+            return;
+        }
+
+        final List<A> instances = ranks.get(rank);
+        instances.remove(instances.size() - 1);
+    }
+
+    // the creators are called once, their instances are kept for the ranks
+    private static <A> VerificationInstancesCreator<A> created(final List<A> instances) {
+        return new VerificationInstancesCreator<A>() {
+            @Override
+            public List<A> create() {
+                return instances;
+            }
+        };
+    }
+
+    // sgn(a.compareTo(b)) verified against sgn(b.compareTo(a)), a comparison
+    // that threw fails the same way as in the full verification
+    private static <A extends Comparable<A>> int compare(final A a, final A b) {
+        RuntimeException exceptionOnAtoB = null;
+        RuntimeException exceptionOnBtoA = null;
+        int signOfAtoB = 0;
+        int signOfBtoA = 0;
+        try {
+            signOfAtoB = Integer.signum(a.compareTo(b));
+        } catch (final RuntimeException exc) {
+            exceptionOnAtoB = exc;
+        }
+        try {
+            signOfBtoA = Integer.signum(b.compareTo(a));
+        } catch (final RuntimeException exc) {
+            exceptionOnBtoA = exc;
+        }
+
+        if (null != exceptionOnAtoB && null == exceptionOnBtoA)
+            throw new AssertionError(
+                    format("Comparing %1$s to %2$s threw an exception but %2$s to %1$s did not!", a, b)
+            );
+        if (null == exceptionOnAtoB && null != exceptionOnBtoA)
+            throw new AssertionError(
+                    format("Comparing %1$s to %2$s threw an exception but %2$s to %1$s did not!", b, a)
+            );
+        if (null != exceptionOnAtoB && a == b)
+            throw new AssertionError(format("Instance %s does not compare as equal to itself!", a));
+        if (null != exceptionOnAtoB)
+            throw new AssertionError(format(Verification.thrownPattern(true), a, b));
+        if (signOfAtoB != -signOfBtoA)
+            throw new AssertionError("Instances do not implement a total order!");
+
+        return signOfAtoB;
+    }
+
+    @SuppressWarnings({"ResultOfMethodCallIgnored", "ConstantConditions"})
+    private void verifyNullContract(final A instance) {
+        if (!suppressEqualsToNullReturnsFalse && instance.equals(null))
+            throw new AssertionError("Instance is equal to null!");
+
+        if (suppressExceptionOnCompareToNull)
+            return;
+
+        try {
+            instance.compareTo(null);
+        } catch (final Exception exc) {
+            // this should throw an exception
+            return;
+        }
+        throw new AssertionError("CompareTo null should throw an exception!");
+    }
+}
@@ -0,0 +1,83 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Stable merge sort of the instance indices.
+ * <p>
+ * Unlike {@link java.util.Arrays#sort(Object[])} it never fails when the
+ * comparison does not implement a total order, it just returns some
+ * permutation of the indices. This is exactly what the verification needs as
+ * the returned order is checked afterwards.
+ */
+final class IndexSort {
+    private IndexSort() {
+        throw new IllegalStateException("IndexSort should not be instantiated!");
+    }
+
+    /**
+     * Returns the indices {@code [0, size)} sorted with the given comparison.
+     *
+     * @param size       number of the sorted indices.
+     * @param comparison compares two indices.
+     * @return sorted indices.
+     */
+    static int[] sort(final int size, final IntBinaryOperator comparison) {
+        int[] source = new int[size];
+        int[] target = new int[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = i;
+        }
+
+        for (int width = 1; width < size; width <<= 1) {
+            for (int from = 0; from < size; from += width << 1) {
+                final int middle = Math.min(from + width, size);
+                final int to = Math.min(from + (width << 1), size);
+                merge(source, target, from, middle, to, comparison);
+            }
+            final int[] swap = source;
+            source = target;
+            target = swap;
+        }
+
+        return source;
+    }
+
+    private static void merge(final int[] source,
+                              final int[] target,
+                              final int from,
+                              final int middle,
+                              final int to,
+                              final IntBinaryOperator comparison) {
+        int left = from;
+        int right = middle;
+        int index = from;
+        while (left < middle && right < to) {
+            if (comparison.applyAsInt(source[left], source[right]) <= 0)
+                target[index++] = source[left++];
+            else
+                target[index++] = source[right++];
+        }
+        while (left < middle) {
+            target[index++] = source[left++];
+        }
+        while (right < to) {
+            target[index++] = source[right++];
+        }
+    }
+}
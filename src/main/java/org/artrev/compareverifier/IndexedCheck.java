@@ -0,0 +1,43 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+/**
+ * A single verification check expressed over a linear index space, e.g. all
+ * pairs or all triples of the tested instances.
+ * <p>
+ * Indices are visited in ascending order by the sequential runner, so the
+ * first violation reported is always the one with the lowest index. The
+ * parallel runner preserves that guarantee.
+ *
+ * @see IndexedChecks
+ */
+abstract class IndexedCheck {
+    /**
+     * Returns the number of indices that have to be verified.
+     *
+     * @return size of the index space.
+     */
+    abstract long size();
+
+    /**
+     * Verifies a single index of the check.
+     *
+     * @param index index from the range [0, size()).
+     * @throws AssertionError if the index violates the checked rule.
+     */
+    abstract void verify(long index);
+}
@@ -0,0 +1,133 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runners for the {@link IndexedCheck} instances.
+ * <p>
+ * Both runners report the violation with the lowest index, thus the parallel
+ * verification fails with exactly the same message as the sequential one.
+ */
+final class IndexedChecks {
+    // ranges smaller than this are not split any further
+    private static final long MIN_SPLIT_SIZE = 256;
+    // how many leaf tasks per worker thread should be created
+    private static final long TASKS_PER_THREAD = 8;
+
+    private IndexedChecks() {
+        throw new IllegalStateException("IndexedChecks should not be instantiated!");
+    }
+
+    static void runSequentially(final IndexedCheck check) {
+        final long size = check.size();
+        for (long index = 0; index < size; index++) {
+            check.verify(index);
+        }
+    }
+
+    static void runInParallel(final ForkJoinPool pool,
+                              final IndexedCheck check) {
+        final long size = check.size();
+        if (size == 0)
+            return;
+
+        final long leafSize = Math.max(
+                MIN_SPLIT_SIZE,
+                size / (pool.getParallelism() * TASKS_PER_THREAD)
+        );
+        final FirstViolation violation = new FirstViolation();
+        pool.invoke(new RangeTask(check, violation, 0, size, leafSize));
+        violation.rethrow();
+    }
+
+    // keeps the violation with the lowest index found so far, tasks that
+    // only cover higher indices can stop as soon as it is known
+    private static final class FirstViolation {
+        private volatile long index = Long.MAX_VALUE;
+        private Throwable error;
+
+        synchronized void offer(final long index, final Throwable error) {
+            if (index < this.index) {
+                this.error = error;
+                this.index = index;
+            }
+        }
+
+        long index() {
+            return index;
+        }
+
+        synchronized void rethrow() {
+            if (error instanceof AssertionError)
+                throw (AssertionError) error;
+            if (error instanceof RuntimeException)
+                throw (RuntimeException) error;
+        }
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IndexedCheck check;
+        private final FirstViolation violation;
+        private final long from;
+        private final long to;
+        private final long leafSize;
+
+        RangeTask(final IndexedCheck check,
+                  final FirstViolation violation,
+                  final long from,
+                  final long to,
+                  final long leafSize) {
+            this.check = check;
+            this.violation = violation;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            // a violation before this range was already found, so nothing
+            // in this range can be reported anymore
+            if (from > violation.index())
+                return;
+
+            if (to - from > leafSize) {
+                final long middle = from + (to - from) / 2;
+                invokeAll(
+                        new RangeTask(check, violation, from, middle, leafSize),
+                        new RangeTask(check, violation, middle, to, leafSize)
+                );
+                return;
+            }
+
+            for (long index = from; index < to; index++) {
+                if (index > violation.index())
+                    return;
+                try {
+                    check.verify(index);
+                } catch (final AssertionError | RuntimeException error) {
+                    violation.offer(index, error);
+                    return;
+                }
+            }
+        }
+    }
+}
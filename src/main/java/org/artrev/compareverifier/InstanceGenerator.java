@@ -0,0 +1,39 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.SplittableRandom;
+
+/**
+ * Defines a generator of random instances used by the creators returned by
+ * {@link VerificationInstancesCreators#generated(long, int, InstanceGenerator)}.
+ * <p>
+ * The generator should draw all of its randomness from the given
+ * {@link SplittableRandom}, so the same seed always produces the same
+ * instances. The generator may be called from multiple threads at once,
+ * every call gets a random that is not shared with the other threads.
+ *
+ * @param <A> type of the generated instances
+ */
+public interface InstanceGenerator<A> {
+    /**
+     * Returns a new instance, should not return a null.
+     *
+     * @param random source of the randomness.
+     * @return generated instance.
+     */
+    A generate(SplittableRandom random);
+}
@@ -0,0 +1,346 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static java.lang.String.format;
+
+/**
+ * {@code KeyOrderVerifier} is a tool that can be used in unit tests to verify
+ * that a {@link Comparator} orders the instances by a primitive key, e.g. a
+ * comparator created with {@link Comparator#comparingLong(ToLongFunction)}
+ * or a hand-written replacement of it.
+ * <p>
+ * The keys are extracted once into a primitive array, so the verification
+ * scales to millions of instances. The verifier checks that:
+ * <ul>
+ * <li>the keys of the lesser instances are lesser than the keys of the equal
+ * instances, which are all the same and lesser than the keys of the greater
+ * instances</li>
+ * <li>the comparator agrees with the key order for all instances that are
+ * neighbours in the key order</li>
+ * <li>the comparator agrees with the key order for every comparison done
+ * while sorting all of the instances with the comparator</li>
+ * </ul>
+ * The comparator is expected to order the instances by the key first, ties
+ * between equal keys may be broken by further comparisons, e.g. by
+ * {@link Comparator#thenComparing(Comparator)}.
+ * <p>
+ * This verification makes O(n log n) comparisons, unlike the full
+ * verification done by the {@link ComparatorVerifier} that compares every
+ * pair of the instances. It is meant for large sets of instances where the
+ * full verification is too expensive.
+ * <p>
+ * <b>Basic Usage:</b>
+ * <pre>
+ * {@code
+ * KeyOrderVerifier
+ *     .forLongKey(Order::getTimestamp, orderComparator, lesserCreator, equalCreator, greaterCreator)
+ *     .verify();
+ * }
+ * </pre>
+ *
+ * @param <A> type of the instances compared by the comparator under test
+ * @see ComparatorVerifier
+ */
+public final class KeyOrderVerifier<A> {
+    private final KeyExtractor<A> keyExtractor;
+    private final Comparator<? super A> comparator;
+    private final VerificationInstancesCreator<A> lesserCreator;
+    private final VerificationInstancesCreator<A> equalCreator;
+    private final VerificationInstancesCreator<A> greaterCreator;
+
+    private ForkJoinPool pool = null;
+
+    private KeyOrderVerifier(
+            final KeyExtractor<A> keyExtractor,
+            final Comparator<? super A> comparator,
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        this.keyExtractor = keyExtractor;
+        this.comparator = comparator;
+        this.lesserCreator = lesserCreator;
+        this.equalCreator = equalCreator;
+        this.greaterCreator = greaterCreator;
+    }
+
+    /**
+     * Creates an instance of the {@link KeyOrderVerifier} for an int key.
+     *
+     * @param key            extracts the key the instances should be ordered by
+     * @param comparator     comparator under test
+     * @param lesserCreator  "lesser" instances factory
+     * @param equalCreator   "equal" instances factory
+     * @param greaterCreator "greater" instances factory
+     * @param <A>            type of the instances compared by the comparator
+     * @return instance of {@link KeyOrderVerifier}
+     */
+    public static <A> KeyOrderVerifier<A> forIntKey(
+            final ToIntFunction<? super A> key,
+            final Comparator<? super A> comparator,
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        if (null == key)
+            throw new IllegalArgumentException("Key extractor cannot be null!");
+
+        return new KeyOrderVerifier<A>(
+                new KeyExtractor<A>() {
+                    @Override
+                    public long extract(final A instance) {
+                        return key.applyAsInt(instance);
+                    }
+                },
+                comparator, lesserCreator, equalCreator, greaterCreator
+        );
+    }
+
+    /**
+     * Creates an instance of the {@link KeyOrderVerifier} for a long key.
+     *
+     * @param key            extracts the key the instances should be ordered by
+     * @param comparator     comparator under test
+     * @param lesserCreator  "lesser" instances factory
+     * @param equalCreator   "equal" instances factory
+     * @param greaterCreator "greater" instances factory
+     * @param <A>            type of the instances compared by the comparator
+     * @return instance of {@link KeyOrderVerifier}
+     */
+    public static <A> KeyOrderVerifier<A> forLongKey(
+            final ToLongFunction<? super A> key,
+            final Comparator<? super A> comparator,
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        if (null == key)
+            throw new IllegalArgumentException("Key extractor cannot be null!");
+
+        return new KeyOrderVerifier<A>(
+                new KeyExtractor<A>() {
+                    @Override
+                    public long extract(final A instance) {
+                        return key.applyAsLong(instance);
+                    }
+                },
+                comparator, lesserCreator, equalCreator, greaterCreator
+        );
+    }
+
+    /**
+     * Creates an instance of the {@link KeyOrderVerifier} for a double key.
+     * The keys are ordered like by {@link Double#compare(double, double)}.
+     *
+     * @param key            extracts the key the instances should be ordered by
+     * @param comparator     comparator under test
+     * @param lesserCreator  "lesser" instances factory
+     * @param equalCreator   "equal" instances factory
+     * @param greaterCreator "greater" instances factory
+     * @param <A>            type of the instances compared by the comparator
+     * @return instance of {@link KeyOrderVerifier}
+     */
+    public static <A> KeyOrderVerifier<A> forDoubleKey(
+            final ToDoubleFunction<? super A> key,
+            final Comparator<? super A> comparator,
+            final VerificationInstancesCreator<A> lesserCreator,
+            final VerificationInstancesCreator<A> equalCreator,
+            final VerificationInstancesCreator<A> greaterCreator
+    ) {
+        if (null == key)
+            throw new IllegalArgumentException("Key extractor cannot be null!");
+
+        return new KeyOrderVerifier<A>(
+                new KeyExtractor<A>() {
+                    @Override
+                    public long extract(final A instance) {
+                        // flipping all but the sign bit of negative values makes
+                        // the bits compare like Double.compare does
+                        final long bits = Double.doubleToLongBits(key.applyAsDouble(instance));
+                        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+                    }
+                },
+                comparator, lesserCreator, equalCreator, greaterCreator
+        );
+    }
+
+    /**
+     * Causes that the comparisons of the neighbours in the key order are
+     * split into work-stealing tasks executed by the given {@link ForkJoinPool}.
+     *
+     * @param pool pool used for executing the checks.
+     * @return instance of {@link KeyOrderVerifier}
+     */
+    public KeyOrderVerifier<A> parallel(final ForkJoinPool pool) {
+        if (null == pool)
+            throw new IllegalArgumentException("ForkJoinPool cannot be null!");
+
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Performs verification if the comparator orders the tested instances by
+     * the key.
+     */
+    public void verify() {
+        if (null == comparator)
+            throw new IllegalArgumentException("Comparator cannot be null!");
+
+        final List<A> lesserInstances =
+                Verification.verifyInstancesCreator(lesserCreator, "lesser");
+        final List<A> equalInstances =
+                Verification.verifyInstancesCreator(equalCreator, "equal");
+        final List<A> greaterInstances =
+                Verification.verifyInstancesCreator(greaterCreator, "greater");
+
+        final List<A> instances = new ArrayList<A>(
+                lesserInstances.size() + equalInstances.size() + greaterInstances.size()
+        );
+        instances.addAll(lesserInstances);
+        instances.addAll(equalInstances);
+        instances.addAll(greaterInstances);
+
+        final int size = instances.size();
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyExtractor.extract(instances.get(i));
+        }
+
+        // verify that the keys are ordered like the groups
+        final int equalFrom = lesserInstances.size();
+        final int greaterFrom = equalFrom + equalInstances.size();
+        verifyGroupKeys(instances, keys, 0, equalFrom, greaterFrom, size);
+
+        // verify that the comparator agrees with the key order for the neighbours
+        final int[] keyOrder = IndexSort.sort(size, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(final int a, final int b) {
+                return Long.compare(keys[a], keys[b]);
+            }
+        });
+        verifyNeighbours(instances, keys, keyOrder);
+
+        // verify that the comparator agrees with the key order while sorting
+        IndexSort.sort(size, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(final int a, final int b) {
+                return compare(instances, keys, a, b);
+            }
+        });
+    }
+
+    private static <A> void verifyGroupKeys(final List<A> instances,
+                                            final long[] keys,
+                                            final int lesserFrom,
+                                            final int equalFrom,
+                                            final int greaterFrom,
+                                            final int to) {
+        final int maxLesser = maxKey(keys, lesserFrom, equalFrom);
+        final int minGreater = minKey(keys, greaterFrom, to);
+
+        for (int e = equalFrom; e < greaterFrom; e++) {
+            if (keys[e] != keys[equalFrom])
+                throw new AssertionError(
+                        format("Instances %s, %s, are equal but have different keys!",
+                                instances.get(equalFrom), instances.get(e))
+                );
+        }
+        if (keys[maxLesser] >= keys[equalFrom])
+            throw new AssertionError(
+                    format("Key of %s is not lesser than key of %s!",
+                            instances.get(maxLesser), instances.get(equalFrom))
+            );
+        if (keys[equalFrom] >= keys[minGreater])
+            throw new AssertionError(
+                    format("Key of %s is not lesser than key of %s!",
+                            instances.get(equalFrom), instances.get(minGreater))
+            );
+    }
+
+    private void verifyNeighbours(final List<A> instances,
+                                  final long[] keys,
+                                  final int[] keyOrder) {
+        final IndexedCheck check = new IndexedCheck() {
+            @Override
+            long size() {
+                return keyOrder.length - 1;
+            }
+
+            @Override
+            void verify(final long index) {
+                final int a = keyOrder[(int) index];
+                final int b = keyOrder[(int) index + 1];
+                compare(instances, keys, a, b);
+                compare(instances, keys, b, a);
+            }
+        };
+
+        if (null == pool)
+            IndexedChecks.runSequentially(check);
+        else
+            IndexedChecks.runInParallel(pool, check);
+    }
+
+    // compares the instances and verifies the result against the keys
+    private int compare(final List<A> instances,
+                        final long[] keys,
+                        final int a,
+                        final int b) {
+        final int sign = Integer.signum(comparator.compare(instances.get(a), instances.get(b)));
+        final int keySign = Long.compare(keys[a], keys[b]);
+        if (keySign != 0 && sign != keySign)
+            throw new AssertionError(
+                    format("Comparing %s to %s returned %d but their keys compare as %d!",
+                            instances.get(a), instances.get(b), sign, keySign)
+            );
+
+        return sign;
+    }
+
+    private static int maxKey(final long[] keys, final int from, final int to) {
+        int max = from;
+        for (int i = from + 1; i < to; i++) {
+            if (keys[i] > keys[max])
+                max = i;
+        }
+        return max;
+    }
+
+    private static int minKey(final long[] keys, final int from, final int to) {
+        int min = from;
+        for (int i = from + 1; i < to; i++) {
+            if (keys[i] < keys[min])
+                min = i;
+        }
+        return min;
+    }
+
+    // all of the supported keys are mapped to longs preserving their order
+    private interface KeyExtractor<A> {
+        long extract(A instance);
+    }
+}
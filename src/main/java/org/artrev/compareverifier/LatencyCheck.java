@@ -0,0 +1,140 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Verifies that the comparisons of the instances meet a latency budget at
+ * the given percentile.
+ * <p>
+ * The comparisons are warmed up first, so the measured code is compiled like
+ * on a hot path. A single comparison is often shorter than the resolution of
+ * {@link System#nanoTime()}, thus every pair is timed over a batch of
+ * {@link #BATCH} comparisons and the cost of reading the clock is subtracted.
+ * The latencies are recorded into a preallocated {@link LatencyHistogram},
+ * so the measurement itself does not allocate.
+ *
+ * @param <A> type of the compared instances
+ */
+final class LatencyCheck<A> {
+    // the warm-up stops after this many comparisons or this much time
+    private static final int WARM_UP_COMPARISONS = 100000;
+    private static final long WARM_UP_NANOS = 500000000L;
+    // comparisons of a single pair timed together
+    private static final int BATCH = 32;
+    // the cost of reading the clock is the minimum of these readings
+    private static final int BASELINE_READINGS = 16;
+
+    private final Comparator<? super A> comparator;
+    private final String comparison;
+    private final List<A> instances;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    // the slowest measured pair
+    private long slowest = -1;
+    private int slowestA = 0;
+    private int slowestB = 0;
+
+    // consumes the results of the comparisons, so they cannot be eliminated
+    private int sink = 0;
+
+    LatencyCheck(final Comparator<? super A> comparator,
+                 final String comparison,
+                 final List<A> instances) {
+        this.comparator = comparator;
+        this.comparison = comparison;
+        this.instances = instances;
+    }
+
+    /**
+     * Throws an {@link AssertionError} if the latency of the comparisons at
+     * the given percentile exceeds the budget.
+     *
+     * @param percentile percentile in the range (0, 100].
+     * @param maxNanos   latency budget of a single comparison.
+     * @return number of the measured comparisons, including the warm-up.
+     */
+    long verify(final double percentile, final long maxNanos) {
+        final int size = instances.size();
+
+        // the measurement itself is warmed up together with the comparisons
+        final long warmUpStart = System.nanoTime();
+        long comparisons = 0;
+        for (int a = 0; comparisons < WARM_UP_COMPARISONS; a = (a + 1) % size) {
+            measureRow(a, 0);
+            comparisons += (long) BATCH * size;
+            if (System.nanoTime() - warmUpStart > WARM_UP_NANOS)
+                break;
+        }
+        histogram.clear();
+        slowest = -1;
+
+        final long baseline = baseline();
+        for (int a = 0; a < size; a++) {
+            measureRow(a, baseline);
+        }
+
+        final long latency = histogram.valueAtPercentile(percentile);
+        if (latency > maxNanos)
+            throw new AssertionError(
+                    format("%s latency at the %s percentile is %dns but the budget is %dns, the slowest is comparing %s to %s!",
+                            comparison, percentile(percentile), latency, maxNanos,
+                            instances.get(slowestA), instances.get(slowestB))
+            );
+
+        return comparisons + (long) BATCH * size * size;
+    }
+
+    private void measureRow(final int a, final long baseline) {
+        final A instance = instances.get(a);
+        for (int b = 0; b < instances.size(); b++) {
+            final A other = instances.get(b);
+            final long start = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) {
+                sink += comparator.compare(instance, other);
+            }
+            final long nanos = Math.max(0, System.nanoTime() - start - baseline) / BATCH;
+
+            histogram.record(nanos);
+            if (nanos > slowest) {
+                slowest = nanos;
+                slowestA = a;
+                slowestB = b;
+            }
+        }
+    }
+
+    // nanoseconds spent by reading the clock
+    private static long baseline() {
+        long baseline = Long.MAX_VALUE;
+        for (int reading = 0; reading < BASELINE_READINGS; reading++) {
+            final long start = System.nanoTime();
+            baseline = Math.min(baseline, System.nanoTime() - start);
+        }
+        return baseline;
+    }
+
+    // 99.0 is printed as 99, 99.9 as 99.9
+    private static String percentile(final double percentile) {
+        return percentile == Math.rint(percentile)
+                ? String.valueOf((long) percentile)
+                : String.valueOf(percentile);
+    }
+}
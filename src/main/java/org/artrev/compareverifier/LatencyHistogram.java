@@ -0,0 +1,88 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative latencies with log-linear buckets.
+ * <p>
+ * Every power of two range of values is split into {@link #SUB_BUCKETS}
+ * linear buckets, so the recorded values are kept with a relative error
+ * below {@code 1 / SUB_BUCKETS} over the whole range of longs. All of the
+ * buckets are allocated up front, recording a value never allocates.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // values below SUB_BUCKETS have a bucket each, every higher power of two
+    // range has SUB_BUCKETS buckets
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+
+    void record(final long value) {
+        counts[bucket(value)]++;
+        total++;
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    long total() {
+        return total;
+    }
+
+    /**
+     * Returns the highest value that falls into the same bucket as the value
+     * at the given percentile, or 0 if nothing was recorded.
+     *
+     * @param percentile percentile in the range (0, 100].
+     * @return upper bound of the value at the percentile.
+     */
+    long valueAtPercentile(final double percentile) {
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank)
+                return highestValue(bucket);
+        }
+        return 0;
+    }
+
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS)
+            return (int) Math.max(0, value);
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValue(final int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.Arrays;
+
+/**
+ * Finds a minimal counterexample for comparisons that do not implement a
+ * total order.
+ * <p>
+ * The search works on the "greater or equal" digraph with an edge
+ * {@code a -> b} for every pair where {@code sgn(compare(a, b)) >= 0}. The
+ * comparisons implement a total order iff they are antisymmetric and no
+ * strongly connected component of the digraph contains a strict edge. The
+ * components are found with an iterative Tarjan's algorithm, so the depth
+ * of the graph is not limited by the stack size. Edges are never
+ * materialized, they are read from the {@link SignMatrix} when needed.
+ * <p>
+ * When the comparisons are antisymmetric every cycle through a strict edge
+ * can be shortened to a cycle of three instances, thus the reported
+ * counterexample is at most a triple.
+ */
+final class OrderCycles {
+    private OrderCycles() {
+        throw new IllegalStateException("OrderCycles should not be instantiated!");
+    }
+
+    /**
+     * Returns the indices of the instances that violate the total order:
+     * <ul>
+     * <li>{@code [a]} if {@code sgn(compare(a, a)) != 0}</li>
+     * <li>{@code [a, b]} if {@code sgn(compare(a, b)) != -sgn(compare(b, a))}</li>
+     * <li>{@code [a, b, c]} if {@code a >= b >= c} but {@code c > a}</li>
+     * </ul>
+     * or null if the comparisons implement a total order. A pair whose
+     * comparison threw an exception is never antisymmetric, so it is
+     * returned as {@code [a, b]} before the cycles are searched.
+     *
+     * @param signs compared instances.
+     * @return minimal counterexample or null.
+     */
+    static int[] findCounterexample(final SignMatrix<?> signs) {
+        final int size = signs.size();
+
+        for (int a = 0; a < size; a++) {
+            if (signs.signOrThrown(a, a) != 0)
+                return new int[]{a};
+        }
+        for (int a = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                if (signs.signOrThrown(a, b) != -signs.signOrThrown(b, a))
+                    return new int[]{a, b};
+            }
+        }
+
+        final int[] components = stronglyConnectedComponents(signs);
+        for (int a = 0; a < size; a++) {
+            for (int b = 0; b < size; b++) {
+                if (components[a] == components[b] && signs.signOrThrown(a, b) > 0)
+                    return shortestCycle(signs, components, a, b);
+            }
+        }
+
+        return null;
+    }
+
+    // iterative Tarjan's algorithm, returns the component of every instance
+    private static int[] stronglyConnectedComponents(final SignMatrix<?> signs) {
+        final int size = signs.size();
+        final int[] indices = new int[size];
+        final int[] lowLinks = new int[size];
+        final int[] components = new int[size];
+        final int[] stack = new int[size];
+        final int[] callStack = new int[size];
+        // next candidate neighbour of every instance on the call stack
+        final int[] cursors = new int[size];
+        final boolean[] onStack = new boolean[size];
+        Arrays.fill(indices, -1);
+
+        int index = 0;
+        int stackSize = 0;
+        int componentCount = 0;
+        for (int root = 0; root < size; root++) {
+            if (indices[root] != -1)
+                continue;
+
+            int depth = 0;
+            callStack[depth++] = root;
+            indices[root] = lowLinks[root] = index++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                final int v = callStack[depth - 1];
+                int w = cursors[v];
+                while (w < size && (w == v || signs.signOrThrown(v, w) < 0)) {
+                    w++;
+                }
+                cursors[v] = w + 1;
+
+                if (w < size) {
+                    if (indices[w] == -1) {
+                        // descend into the neighbour
+                        callStack[depth++] = w;
+                        indices[w] = lowLinks[w] = index++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                    } else if (onStack[w]) {
+                        lowLinks[v] = Math.min(lowLinks[v], indices[w]);
+                    }
+                    continue;
+                }
+
+                // all neighbours visited, return to the caller
+                depth--;
+                if (depth > 0) {
+                    final int caller = callStack[depth - 1];
+                    lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[v]);
+                }
+                if (lowLinks[v] == indices[v]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = componentCount;
+                    } while (member != v);
+                    componentCount++;
+                }
+            }
+        }
+
+        return components;
+    }
+
+    // breadth first search for the shortest path from b back to a within the
+    // component of the strict edge a -> b, shortened to a triple
+    private static int[] shortestCycle(final SignMatrix<?> signs,
+                                       final int[] components,
+                                       final int a,
+                                       final int b) {
+        final int size = signs.size();
+        final int[] parents = new int[size];
+        final int[] queue = new int[size];
+        Arrays.fill(parents, -1);
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = b;
+        parents[b] = b;
+        while (head < tail && parents[a] == -1) {
+            final int v = queue[head++];
+            for (int w = 0; w < size; w++) {
+                if (parents[w] == -1 && components[w] == components[v] && signs.signOrThrown(v, w) >= 0) {
+                    parents[w] = v;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        // path b = x0 -> x1 -> x2 -> ... -> a, so x0 >= x1 >= x2, and as it is
+        // the shortest path x0 < x2, which by antisymmetry means x2 > x0
+        int x2 = a;
+        int x1 = parents[x2];
+        while (parents[x1] != b) {
+            x2 = x1;
+            x1 = parents[x1];
+        }
+        if (x1 == b)
+            // the path is a single edge, it cannot happen for antisymmetric
+            // comparisons but the pair is reported for completeness
+            return new int[]{a, b};
+
+        return new int[]{b, x1, x2};
+    }
+}
@@ -0,0 +1,41 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.List;
+
+/**
+ * Defines how the instances of a failed verification are simplified before
+ * they are reported, e.g. numbers are moved towards zero and strings are
+ * shortened.
+ * <p>
+ * A simpler candidate replaces the instance only if the instances still
+ * violate the contract afterwards, thus the candidates do not have to keep
+ * the order of the original instance.
+ *
+ * @param <A> type of the shrunk instances
+ * @see ComparableVerifier#shrinkWith(Shrinker)
+ */
+public interface Shrinker<A> {
+    /**
+     * Returns candidates simpler than the given instance, the simplest
+     * first, or an empty List if the instance cannot be simplified.
+     *
+     * @param instance instance that should be simplified.
+     * @return simpler candidates.
+     */
+    List<A> shrink(A instance);
+}
@@ -0,0 +1,270 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Memoized results of comparing every ordered pair of the tested instances.
+ * <p>
+ * Each result is stored as 2 bits in a {@link SignStorage}. Every row of the
+ * matrix consists of two bit planes aligned to whole words: the "less" plane
+ * has bit {@code j} set if {@code i < j} and the "greater" plane has bit
+ * {@code j} set if {@code i > j}. Both bits cleared mean that the instances
+ * are equal and both bits set mean that the pair was not compared yet.
+ * <p>
+ * Pairs are compared lazily at most once. Exceptions thrown by the comparison
+ * are remembered, so they can be reported or rethrown on every access.
+ * <p>
+ * The rows are laid out one after another, so walking a row reads the words
+ * in order. When the words are mapped into a file the checks should touch
+ * the pairs tile by tile, see {@link #isMapped()}.
+ * <p>
+ * The lazy access is not thread safe, the matrix has to be filled with
+ * {@link #fill(ForkJoinPool)} before it is shared between threads.
+ *
+ * @param <A> type of the compared instances
+ */
+final class SignMatrix<A> {
+    // returned by signOrThrown if the comparison threw an exception
+    static final int THROWN = 2;
+
+    // ranges of rows smaller than this are not split any further
+    private static final int MIN_SPLIT_ROWS = 16;
+
+    private final List<A> instances;
+    private final Comparator<? super A> comparator;
+    private final int size;
+    private final int wordsPerPlane;
+    private final SignStorage words;
+    private final Map<Long, RuntimeException> exceptions =
+            new ConcurrentHashMap<Long, RuntimeException>();
+    // avoids boxed lookups into the exceptions map until one is thrown
+    private volatile boolean anyThrown = false;
+
+    SignMatrix(final List<A> instances,
+               final Comparator<? super A> comparator) {
+        this(instances, comparator, null, 0);
+    }
+
+    /**
+     * Creates a matrix whose words are mapped into a temporary file in the
+     * spill directory when they need more than the heap limit.
+     */
+    SignMatrix(final List<A> instances,
+               final Comparator<? super A> comparator,
+               final File spillDirectory,
+               final long heapLimitBytes) {
+        this.instances = instances;
+        this.comparator = comparator;
+        this.size = instances.size();
+        this.wordsPerPlane = (size + 63) >>> 6;
+        this.words = SignStorage.allocate(2L * wordsPerPlane * size, spillDirectory, heapLimitBytes);
+    }
+
+    int size() {
+        return size;
+    }
+
+    A instance(final int index) {
+        return instances.get(index);
+    }
+
+    /**
+     * Returns true if the words are mapped into a file, so reading a pair
+     * that is far from the recently read ones may fault a page in.
+     */
+    boolean isMapped() {
+        return words.isMapped();
+    }
+
+    /**
+     * Returns {@code sgn(compare(instance(i), instance(j)))}, rethrowing the
+     * exception thrown by the comparison if there was one.
+     */
+    int sign(final int i, final int j) {
+        final int sign = signOrThrown(i, j);
+        if (sign == THROWN)
+            throw exceptions.get(key(i, j));
+
+        return sign;
+    }
+
+    /**
+     * Returns {@code sgn(compare(instance(i), instance(j)))} or
+     * {@link #THROWN} if the comparison threw an exception.
+     */
+    int signOrThrown(final int i, final int j) {
+        final long less = lessWord(i) + (j >>> 6);
+        final long bit = 1L << j;
+        final boolean isLess = (words.get(less) & bit) != 0;
+        final boolean isGreater = (words.get(less + wordsPerPlane) & bit) != 0;
+
+        if (isLess != isGreater)
+            return isLess ? -1 : 1;
+        if (!isLess)
+            return 0;
+        if (anyThrown && exceptions.containsKey(key(i, j)))
+            return THROWN;
+
+        return compute(i, j);
+    }
+
+    /**
+     * Compares all pairs of the row that were not compared yet, returns the
+     * first column whose comparison threw an exception, or {@link #size()}
+     * if there is none.
+     */
+    int completeRow(final int row) {
+        final long less = lessWord(row);
+        int thrown = size;
+        for (int word = 0; word < wordsPerPlane; word++) {
+            // the padding columns after the last instance are never compared,
+            // the ones that threw stay unknown
+            long unknown = words.get(less + word) & words.get(less + wordsPerPlane + word) & columns(word);
+            while (unknown != 0) {
+                final int column = (word << 6) + Long.numberOfTrailingZeros(unknown);
+                if (signOrThrown(row, column) == THROWN)
+                    thrown = Math.min(thrown, column);
+                unknown &= unknown - 1;
+            }
+        }
+        return thrown;
+    }
+
+    /**
+     * Returns the first column not lesser than {@code from} where the
+     * complete row has an equal pair, or {@link #size()} if there is none.
+     */
+    int nextEqualColumn(final int row, final int from) {
+        final long less = lessWord(row);
+        int word = from >>> 6;
+        if (word >= wordsPerPlane)
+            return size;
+
+        // bits before "from" are masked out of the first word
+        long equal = ~(words.get(less + word) | words.get(less + wordsPerPlane + word)) & (-1L << from);
+        while (true) {
+            if (equal != 0) {
+                final int column = (word << 6) + Long.numberOfTrailingZeros(equal);
+                return Math.min(column, size);
+            }
+            if (++word == wordsPerPlane)
+                return size;
+            equal = ~(words.get(less + word) | words.get(less + wordsPerPlane + word));
+        }
+    }
+
+    /**
+     * Returns the first column where the complete rows {@code a} and
+     * {@code b} differ, ignoring the columns {@code a} and {@code b}, or
+     * {@link #size()} if the rows are the same. Compares 64 columns at once.
+     */
+    int firstDifferentColumn(final int a, final int b) {
+        final long lessA = lessWord(a);
+        final long lessB = lessWord(b);
+        for (int word = 0; word < wordsPerPlane; word++) {
+            long different = (words.get(lessA + word) ^ words.get(lessB + word))
+                    | (words.get(lessA + wordsPerPlane + word) ^ words.get(lessB + wordsPerPlane + word));
+            if (word == a >>> 6)
+                different &= ~(1L << a);
+            if (word == b >>> 6)
+                different &= ~(1L << b);
+            if (different != 0)
+                return (word << 6) + Long.numberOfTrailingZeros(different);
+        }
+        return size;
+    }
+
+    /**
+     * Compares all pairs that were not compared yet, splitting the rows
+     * between the threads of the given pool.
+     */
+    void fill(final ForkJoinPool pool) {
+        pool.invoke(new FillTask(0, size));
+    }
+
+    private int compute(final int i, final int j) {
+        final int sign;
+        try {
+            sign = Integer.signum(comparator.compare(instances.get(i), instances.get(j)));
+        } catch (final RuntimeException exc) {
+            exceptions.put(key(i, j), exc);
+            anyThrown = true;
+            return THROWN;
+        }
+
+        final long less = lessWord(i) + (j >>> 6);
+        final long bit = 1L << j;
+        if (sign >= 0)
+            words.clear(less, bit);
+        if (sign <= 0)
+            words.clear(less + wordsPerPlane, bit);
+
+        return sign;
+    }
+
+    private void fillRows(final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            for (int j = 0; j < size; j++) {
+                signOrThrown(i, j);
+            }
+        }
+    }
+
+    // mask of the columns of the word that belong to an instance
+    private long columns(final int word) {
+        final int remaining = size - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    private long lessWord(final int row) {
+        return 2L * wordsPerPlane * row;
+    }
+
+    private long key(final int i, final int j) {
+        return (long) i * size + j;
+    }
+
+    // every task owns whole rows, so no word is written by two threads
+    private final class FillTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        FillTask(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > MIN_SPLIT_ROWS) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new FillTask(from, middle), new FillTask(middle, to));
+                return;
+            }
+            fillRows(from, to);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Words of the {@link SignMatrix}, kept either in a {@code long[]} on the
+ * heap or in a memory-mapped temporary file when they do not fit the heap.
+ * <p>
+ * The words are addressed with long indices, so the mapped storage is not
+ * limited by the maximum length of an array. Every word starts with all of
+ * its bits set and the bits are only ever cleared. Different words may be
+ * written by different threads at the same time.
+ */
+abstract class SignStorage {
+    /**
+     * @return word at the given index.
+     */
+    abstract long get(long index);
+
+    /**
+     * Clears the given bits of the word at the given index.
+     */
+    abstract void clear(long index, long bits);
+
+    /**
+     * @return true if the words are kept outside of the heap.
+     */
+    abstract boolean isMapped();
+
+    /**
+     * Returns a storage of the given number of words, mapped into a
+     * temporary file in the spill directory if the words need more than
+     * the heap limit.
+     *
+     * @param length         number of the words.
+     * @param spillDirectory directory of the temporary file or null if the
+     *                       words are always kept on the heap.
+     * @param heapLimitBytes maximum number of bytes kept on the heap.
+     * @return storage of the words.
+     */
+    static SignStorage allocate(final long length,
+                                final File spillDirectory,
+                                final long heapLimitBytes) {
+        if (null != spillDirectory && length > heapLimitBytes / 8)
+            return new Mapped(length, spillDirectory);
+
+        return new Heap(length);
+    }
+
+    private static final class Heap extends SignStorage {
+        private final long[] words;
+
+        Heap(final long length) {
+            if (length > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Too many instances to verify on the heap: " + length + " words!");
+
+            this.words = new long[(int) length];
+            Arrays.fill(words, -1L);
+        }
+
+        @Override
+        long get(final long index) {
+            return words[(int) index];
+        }
+
+        @Override
+        void clear(final long index, final long bits) {
+            words[(int) index] &= ~bits;
+        }
+
+        @Override
+        boolean isMapped() {
+            return false;
+        }
+    }
+
+    // the file is split into segments as a single mapping is limited to 2GB,
+    // the words are stored complemented, so the zeros of a freshly extended
+    // file are the set bits and the untouched pages are never written
+    private static final class Mapped extends SignStorage {
+        // 2^27 words, 1GB per segment
+        private static final int SEGMENT_SHIFT = 27;
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+        private final MappedByteBuffer[] segments;
+
+        Mapped(final long length, final File directory) {
+            final long segmentCount = (length + SEGMENT_MASK) >>> SEGMENT_SHIFT;
+            if (segmentCount > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Too many instances to verify: " + length + " words!");
+
+            this.segments = new MappedByteBuffer[(int) segmentCount];
+            try {
+                final File file = File.createTempFile("compare-verifier-signs", ".bin", directory);
+                try {
+                    final RandomAccessFile access = new RandomAccessFile(file, "rw");
+                    try {
+                        access.setLength(length * 8);
+                        final FileChannel channel = access.getChannel();
+                        for (int s = 0; s < segments.length; s++) {
+                            final long from = (long) s << SEGMENT_SHIFT;
+                            final long words = Math.min(length - from, 1L << SEGMENT_SHIFT);
+                            segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, from * 8, words * 8);
+                        }
+                    } finally {
+                        // the mappings stay valid after the channel is closed
+                        access.close();
+                    }
+                } finally {
+                    // the pages are released once the mappings are collected,
+                    // platforms that cannot delete a mapped file do it on exit
+                    if (!file.delete())
+                        file.deleteOnExit();
+                }
+            } catch (final IOException exc) {
+                throw new IllegalStateException("Cannot map the comparison results into " + directory + "!", exc);
+            }
+        }
+
+        @Override
+        long get(final long index) {
+            return ~segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) << 3);
+        }
+
+        @Override
+        void clear(final long index, final long bits) {
+            final MappedByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+            final int offset = (int) (index & SEGMENT_MASK) << 3;
+            segment.putLong(offset, segment.getLong(offset) | bits);
+        }
+
+        @Override
+        boolean isMapped() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,1051 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+
+import static java.lang.String.format;
+
+/**
+ * Verification core shared by {@link ComparableVerifier} and
+ * {@link ComparatorVerifier}.
+ * <p>
+ * All of the created instances are pooled and compared through a single
+ * {@link SignMatrix}. The checks address the instances by their index in the
+ * pool, so the loops neither box nor allocate iterators.
+ *
+ * @param <A> type of the verified instances
+ */
+final class Verification<A> {
+    // indices verified in order before the time of a budgeted check is projected again
+    private static final long MIN_BUDGET_CHUNK = 64;
+    private static final long MAX_BUDGET_CHUNK = 4096;
+    // rows and columns of a tile of the pairs walked in a mapped sign matrix
+    private static final int TILE = 512;
+
+    private final Comparator<? super A> comparator;
+    // the comparator counting the comparisons while the statistics are recorded
+    private final Comparator<A> counted;
+    private final VerificationOptions options;
+    // name of the comparison used in the assertion messages
+    private final String comparison;
+    private final List<A> instances;
+    private final SignMatrix<A> signs;
+    private final Group lesser;
+    private final Group equal;
+    private final Group greater;
+    // instances that are not expected to be ordered relative to the groups
+    private final Group additional;
+    private final Group all;
+    // the order is verified on the representatives of the equivalence classes
+    private final boolean compress;
+    // the expensive checks are sampled to finish by this time, if there is a budget
+    private long deadline;
+
+    // null means that the verification fails on the first violation
+    private VerificationReport report = null;
+
+    // null means that the statistics are not recorded
+    private VerificationStatistics statistics = null;
+    private final LongAdder comparisons = new LongAdder();
+    private long equalsCalls = 0;
+    // values of the counters when the current check started
+    private long checkNanos = 0;
+    private long checkComparisons = 0;
+    private long checkEqualsCalls = 0;
+
+    Verification(final Comparator<? super A> comparator,
+                 final String comparison,
+                 final VerificationOptions options,
+                 final List<A> lesserInstances,
+                 final List<A> equalInstances,
+                 final List<A> greaterInstances) {
+        this(comparator, comparison, options, lesserInstances, equalInstances, greaterInstances,
+                Collections.<A>emptyList());
+    }
+
+    Verification(final Comparator<? super A> comparator,
+                 final String comparison,
+                 final VerificationOptions options,
+                 final List<A> lesserInstances,
+                 final List<A> equalInstances,
+                 final List<A> greaterInstances,
+                 final List<A> additionalInstances) {
+        this(comparator, comparison, options, options.compressEquivalenceClasses,
+                lesserInstances, equalInstances, greaterInstances, additionalInstances);
+    }
+
+    private Verification(final Comparator<? super A> comparator,
+                         final String comparison,
+                         final VerificationOptions options,
+                         final boolean compress,
+                         final List<A> lesserInstances,
+                         final List<A> equalInstances,
+                         final List<A> greaterInstances,
+                         final List<A> additionalInstances) {
+        this.comparator = comparator;
+        this.counted = new Comparator<A>() {
+            @Override
+            public int compare(final A first, final A second) {
+                if (null != statistics)
+                    comparisons.increment();
+
+                return comparator.compare(first, second);
+            }
+        };
+        this.options = options;
+        this.compress = compress;
+        this.deadline = System.nanoTime() + options.budgetNanos;
+        this.comparison = comparison;
+
+        this.instances = new ArrayList<A>(
+                lesserInstances.size() + equalInstances.size() + greaterInstances.size()
+                        + additionalInstances.size()
+        );
+        this.lesser = Group.append(instances, lesserInstances);
+        this.equal = Group.append(instances, equalInstances);
+        this.greater = Group.append(instances, greaterInstances);
+        this.additional = Group.append(instances, additionalInstances);
+        this.all = new Group(0, instances.size());
+        this.signs = new SignMatrix<A>(instances, counted, options.spillDirectory, options.heapLimitBytes);
+    }
+
+    int size() {
+        return signs.size();
+    }
+
+    A instance(final int index) {
+        return signs.instance(index);
+    }
+
+    /**
+     * Updates the digest with the groups of the instances, their classes and
+     * fingerprints, by default their string representations, which identify
+     * them in the cache of the passed verifications.
+     */
+    void fingerprint(final MessageDigest digest, final Function<? super A, String> fingerprint) {
+        final Group[] groups = {lesser, equal, greater, additional};
+        for (final Group group : groups) {
+            VerificationCache.update(digest, group.size());
+            for (int i = group.from; i < group.to; i++) {
+                final A instance = instances.get(i);
+                VerificationCache.update(digest, instance.getClass().getName());
+                VerificationCache.update(digest,
+                        null == fingerprint ? String.valueOf(instance) : String.valueOf(fingerprint.apply(instance)));
+            }
+        }
+    }
+
+    /**
+     * Causes that the comparisons, the equals calls and the time of every
+     * check are recorded into the returned statistics.
+     */
+    VerificationStatistics recordStatistics(final long creationNanos) {
+        statistics = new VerificationStatistics(
+                lesser.size(), equal.size(), greater.size(), additional.size(), creationNanos
+        );
+        return statistics;
+    }
+
+    /**
+     * Starts recording the statistics of a check.
+     */
+    void startCheck() {
+        if (null == statistics)
+            return;
+
+        checkComparisons = comparisons.sum();
+        checkEqualsCalls = equalsCalls;
+        checkNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the statistics of the check started by {@link #startCheck()}.
+     */
+    void endCheck(final String check) {
+        endCheck(check, 1);
+    }
+
+    private void endCheck(final String check, final double coverage) {
+        if (null == statistics)
+            return;
+
+        statistics.add(check,
+                comparisons.sum() - checkComparisons,
+                equalsCalls - checkEqualsCalls,
+                System.nanoTime() - checkNanos,
+                coverage);
+    }
+
+    /**
+     * Counts a comparison made directly, not through the comparator.
+     */
+    void countComparison() {
+        if (null != statistics)
+            comparisons.increment();
+    }
+
+    /**
+     * Returns {@code instance(index).equals(other)}, counting the call.
+     */
+    boolean instanceEquals(final int index, final Object other) {
+        equalsCalls++;
+        return signs.instance(index).equals(other);
+    }
+
+    /**
+     * Causes that the violations are collected into the returned report
+     * instead of failing on the first one.
+     */
+    VerificationReport collectViolations(final int maxViolationsPerClause) {
+        report = new VerificationReport(maxViolationsPerClause);
+        return report;
+    }
+
+    /**
+     * Reports a violation of the clause witnessed by the given instances,
+     * the message is rendered from the pattern only when it is needed.
+     *
+     * @param clause    violated clause.
+     * @param key       orders the violations of the clause.
+     * @param pattern   format of the message, taking the witnesses.
+     * @param witnesses indices of the witnessing instances.
+     */
+    void violation(final VerificationClause clause,
+                   final long key,
+                   final String pattern,
+                   final int... witnesses) {
+        final Object[] witnessing = new Object[witnesses.length];
+        for (int i = 0; i < witnesses.length; i++) {
+            witnessing[i] = signs.instance(witnesses[i]);
+        }
+
+        if (null == report)
+            throw new VerificationFailure(format(pattern, witnessing), witnesses);
+
+        report.add(clause, key, pattern, witnessing);
+    }
+
+    /**
+     * Verifies that the instances are ordered according to their groups and
+     * that the comparison implements a total order.
+     */
+    void verifyOrder() {
+        if (compress) {
+            verifyCompressedOrder();
+            return;
+        }
+
+        try {
+            verifyOrderClauses();
+        } catch (final VerificationFailure failure) {
+            throw shrunk(failure);
+        }
+    }
+
+    // the collected violations are never thrown, so they are never shrunk
+    private AssertionError shrunk(final VerificationFailure failure) {
+        if (options.suppressShrinking)
+            return failure;
+
+        return new CounterexampleShrinking<A>(signs, comparator, shrinker()).shrink(failure);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Shrinker<A> shrinker() {
+        // the verifiers accept only a shrinker of the verified type
+        return (Shrinker<A>) options.shrinker;
+    }
+
+    private void verifyOrderClauses() {
+        if (0 != options.budgetNanos) {
+            verifyOrderClausesWithinBudget();
+            return;
+        }
+
+        // the parallel checks only read the matrix, so it is filled up front
+        if (null != options.pool) {
+            startCheck();
+            signs.fill(options.pool);
+            endCheck(VerificationStatistics.SIGN_MATRIX_FILL);
+        }
+
+        // verify that sgn(compare(a, b)) == -sgn(compare(b, a))
+        startCheck();
+        verifyReverse(equal, equal);
+        verifyReverse(equal, lesser);
+        verifyReverse(equal, greater);
+        verifyReverse(lesser, greater);
+        verifyReverse(additional, all);
+        endCheck(VerificationClause.ANTISYMMETRY.name());
+
+        // verify that sgn(compare(a, b)) > 0 && sgn(compare(b, c)) > 0 => sgn(compare(a, c)) > 0
+        startCheck();
+        verifyTransitivity(lesser, equal, greater);
+        endCheck(VerificationClause.TRANSITIVITY.name());
+
+        // verify that sgn(compare(a, b)) == 0 => sgn(compare(a, c)) == sgn(compare(b, c))
+        startCheck();
+        verifyEqualInstancesAreSubstitutable();
+        endCheck(VerificationClause.SUBSTITUTABILITY.name());
+
+        // verify that all of the instances, including the ones within a single group, are in a total order
+        startCheck();
+        verifyTotalOrder();
+        endCheck(VerificationClause.TOTAL_ORDER.name());
+    }
+
+    // the antisymmetry is verified completely as it compares every pair at
+    // most once, the other checks run from the cheapest one and each of
+    // them gets an equal share of the remaining time
+    private void verifyOrderClausesWithinBudget() {
+        // verify that sgn(compare(a, b)) == -sgn(compare(b, a))
+        startCheck();
+        verifyReverse(equal, equal);
+        verifyReverse(equal, lesser);
+        verifyReverse(equal, greater);
+        verifyReverse(lesser, greater);
+        verifyReverse(additional, all);
+        endCheck(VerificationClause.ANTISYMMETRY.name());
+
+        // estimated number of the comparisons and the word operations
+        final long n = signs.size();
+        final long[] costs = {
+                (long) lesser.size() * equal.size() + (long) (lesser.size() + equal.size()) * greater.size(),
+                n * n + ((long) equal.size() * equal.size() + n) * ((n + 63) / 64),
+                n * n + n * (64 - Long.numberOfLeadingZeros(n))
+        };
+        final VerificationClause[] clauses = {
+                VerificationClause.TRANSITIVITY,
+                VerificationClause.SUBSTITUTABILITY,
+                VerificationClause.TOTAL_ORDER
+        };
+        final Integer[] order = {0, 1, 2};
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                return Long.compare(costs[first], costs[second]);
+            }
+        });
+
+        for (int scheduled = 0; scheduled < order.length; scheduled++) {
+            final long now = System.nanoTime();
+            final long share = Math.max(0, deadline - now) / (order.length - scheduled);
+            final long checkDeadline = now + share;
+
+            startCheck();
+            final double coverage;
+            switch (order[scheduled]) {
+                case 0:
+                    // verify that sgn(compare(a, b)) > 0 && sgn(compare(b, c)) > 0 => sgn(compare(a, c)) > 0
+                    coverage = runWithin(transitivityCheck(lesser, equal, greater), checkDeadline);
+                    break;
+                case 1:
+                    // verify that sgn(compare(a, b)) == 0 => sgn(compare(a, c)) == sgn(compare(b, c))
+                    coverage = runWithin(substitutabilityCheck(), checkDeadline);
+                    break;
+                default:
+                    // verify that all of the instances are in a total order
+                    coverage = verifyTotalOrderWithin(checkDeadline);
+                    break;
+            }
+            endCheck(clauses[order[scheduled]].name(), coverage);
+        }
+    }
+
+    // verifies the indices in order while the time projected from the
+    // verified ones fits before the deadline, once it does not a sample of
+    // the remaining indices is verified in a pseudo-random order until the
+    // deadline, returns the verified fraction of the indices
+    private static double runWithin(final IndexedCheck check, final long deadline) {
+        final long size = check.size();
+        if (size == 0)
+            return 1;
+
+        final long start = System.nanoTime();
+        long index = 0;
+        long chunk = MIN_BUDGET_CHUNK;
+        while (index < size) {
+            final long to = Math.min(size, index + chunk);
+            for (; index < to; index++) {
+                check.verify(index);
+            }
+
+            final long now = System.nanoTime();
+            final double nanosPerIndex = (double) (now - start) / index;
+            if (now + nanosPerIndex * (size - index) > deadline)
+                break;
+            chunk = Math.min(chunk << 1, MAX_BUDGET_CHUNK);
+        }
+        if (index == size)
+            return 1;
+
+        // a stride coprime with the number of the remaining indices visits
+        // every one of them once, the golden ratio spreads the visits evenly
+        final long remaining = size - index;
+        long stride = Math.max(1, (long) (remaining * 0.6180339887));
+        while (gcd(stride, remaining) != 1) {
+            stride++;
+        }
+
+        long position = 0;
+        long sampled = 0;
+        while (sampled < remaining) {
+            check.verify(index + position);
+            sampled++;
+            position = (position + stride) % remaining;
+            if (sampled % MIN_BUDGET_CHUNK == 0 && System.nanoTime() >= deadline)
+                break;
+        }
+        return (double) (index + sampled) / size;
+    }
+
+    private static long gcd(final long a, final long b) {
+        return 0 == b ? a : gcd(b, a % b);
+    }
+
+    // every group is sorted and split into classes of the instances that
+    // compare as equal to the first instance of the class both ways, the
+    // order is verified on the first instances, the representatives, and
+    // every other instance is compared to the representatives and to the
+    // other members of its class, the members of different classes are
+    // never compared to each other, so it is not a full verification
+    private void verifyCompressedOrder() {
+        startCheck();
+        final EquivalenceClasses classes = partition();
+        endCheck(VerificationStatistics.EQUIVALENCE_CLASSES);
+
+        // the representatives verify their order and shrink their own counterexamples,
+        // their comparisons are counted by this verification
+        startCheck();
+        final Verification<A> representatives = new Verification<A>(
+                counted, comparison, options, false,
+                classes.representatives(instances, 0),
+                classes.representatives(instances, 1),
+                classes.representatives(instances, 2),
+                classes.representatives(instances, 3)
+        );
+        representatives.report = report;
+        representatives.deadline = deadline;
+        representatives.verifyOrder();
+        endCheck(VerificationStatistics.REPRESENTATIVES);
+
+        // the substitutability check reads the matrix of the representatives
+        // from many threads, in the collect mode it may not be complete yet
+        startCheck();
+        if (null != options.pool && 0 == options.budgetNanos)
+            representatives.signs.fill(options.pool);
+
+        try {
+            verifyMembersAreSubstitutable(classes, representatives.signs);
+        } catch (final VerificationFailure failure) {
+            throw shrunk(failure);
+        }
+        endCheck(VerificationClause.SUBSTITUTABILITY.name());
+    }
+
+    private EquivalenceClasses partition() {
+        final EquivalenceClasses classes = new EquivalenceClasses(signs.size());
+        final Group[] groups = {lesser, equal, greater, additional};
+        for (final Group group : groups) {
+            final int[] order = IndexSort.sort(group.size(), new IntBinaryOperator() {
+                @Override
+                public int applyAsInt(final int a, final int b) {
+                    return compareOrThrown(group.from + a, group.from + b);
+                }
+            });
+
+            int representative = -1;
+            for (final int index : order) {
+                final int a = group.from + index;
+                if (representative < 0
+                        || compareOrThrown(a, representative) != 0
+                        || compareOrThrown(representative, a) != 0)
+                    representative = a;
+                classes.add(a, representative == a);
+            }
+            classes.endGroup();
+        }
+        return classes;
+    }
+
+    // sgn(compare(a, s)) == sgn(compare(r, s)) and sgn(compare(s, a)) == sgn(compare(s, r))
+    // for every instance a of a class represented by r and every representative s,
+    // including r itself, which confirms that the classes are compared as equal,
+    // and sgn(compare(a, b)) == 0 for every other member b of the class
+    private void verifyMembersAreSubstitutable(final EquivalenceClasses classes,
+                                               final SignMatrix<A> representatives) {
+        run(new IndexedCheck() {
+            @Override
+            long size() {
+                return classes.order.length;
+            }
+
+            @Override
+            void verify(final long index) {
+                final int a = classes.order[(int) index];
+                final int c = classes.classOf[a];
+                final int representative = classes.order[classes.from[c]];
+                if (a == representative)
+                    return;
+
+                if (compareOrThrown(a, a) != 0) {
+                    violation(VerificationClause.TOTAL_ORDER, index,
+                            "Instance %s does not compare as equal to itself!", a);
+                    return;
+                }
+                for (int s = 0; s < representatives.size(); s++) {
+                    final int other = classes.order[classes.from[s]];
+                    if (compareOrThrown(a, other) != representatives.signOrThrown(c, s)
+                            || compareOrThrown(other, a) != representatives.signOrThrown(s, c)) {
+                        violation(VerificationClause.SUBSTITUTABILITY, index,
+                                "Instances %s, %s, compare as equal but differently to %s!",
+                                representative, a, other);
+                        return;
+                    }
+                }
+                for (int m = classes.from[c] + 1; m < classes.from[c + 1]; m++) {
+                    final int member = classes.order[m];
+                    if (member != a && (compareOrThrown(a, member) != 0 || compareOrThrown(member, a) != 0)) {
+                        violation(VerificationClause.SUBSTITUTABILITY, index,
+                                "Instances %s, %s, compare as equal but differently to %s!",
+                                representative, a, member);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    // sgn(compare(a, b)) or THROWN, not memoized, so it can be called from any thread
+    private int compareOrThrown(final int a, final int b) {
+        try {
+            return Integer.signum(counted.compare(instances.get(a), instances.get(b)));
+        } catch (final RuntimeException exc) {
+            return SignMatrix.THROWN;
+        }
+    }
+
+    /**
+     * Verifies that the comparisons meet the latency budget if one was set.
+     * The comparisons are not memoized, every one of them is timed on the
+     * calling thread.
+     */
+    void verifyCompareLatency() {
+        if (0 == options.maxCompareLatencyNanos)
+            return;
+
+        // the measured comparisons are not slowed down by counting them
+        startCheck();
+        final long measured = new LatencyCheck<A>(comparator, comparison, instances)
+                .verify(options.compareLatencyPercentile, options.maxCompareLatencyNanos);
+        if (null != statistics)
+            comparisons.add(measured);
+        endCheck(VerificationStatistics.COMPARE_LATENCY);
+    }
+
+    /**
+     * Verifies that comparing any pair of the instances allocates at most
+     * the given number of bytes. The comparisons are not memoized, every one
+     * of them is measured on the calling thread.
+     */
+    void verifyAllocationFree(final long maxBytesPerComparison) {
+        new AllocationCheck<A>(comparator, comparison, instances).verify(maxBytesPerComparison);
+    }
+
+    /**
+     * Verifies that comparing the fresh instances of the other verification
+     * from many threads at once gives the same results as comparing the
+     * instances of this one on a single thread.
+     */
+    void verifyConcurrently(final Verification<A> fresh, final int threadCount) {
+        new ConcurrencyCheck<A>(comparator, comparison, signs, fresh.instances).verify(threadCount);
+    }
+
+    // sgn(compare(a, b)) == 0 => sgn(compare(a, c)) == sgn(compare(b, c))
+    // rows of the sign matrix are compared 64 instances at once
+    private void verifyEqualInstancesAreSubstitutable() {
+        run(substitutabilityCheck());
+    }
+
+    private IndexedCheck substitutabilityCheck() {
+        final int size = signs.size();
+        return new IndexedCheck() {
+            @Override
+            long size() {
+                return size;
+            }
+
+            @Override
+            void verify(final long index) {
+                final int a = (int) index;
+                final int thrown = signs.completeRow(a);
+                if (thrown < size) {
+                    thrownViolation(VerificationClause.SUBSTITUTABILITY, index, a, thrown);
+                    return;
+                }
+                for (int b = signs.nextEqualColumn(a, a + 1); b < size; b = signs.nextEqualColumn(a, b + 1)) {
+                    // a row with a comparison that threw is reported at its own index
+                    if (signs.completeRow(b) < size)
+                        continue;
+                    final int c = signs.firstDifferentColumn(a, b);
+                    if (c < size) {
+                        violation(VerificationClause.SUBSTITUTABILITY, index,
+                                "Instances %s, %s, compare as equal but differently to %s!", a, b, c);
+                        return;
+                    }
+                }
+            }
+        };
+    }
+
+    // sgn(compare(a, b)) > 0 && sgn(compare(b, c)) > 0 => sgn(compare(a, c)) > 0
+    // for every lesser, equal and greater triple, the first failing triple is
+    // found from the failing pairs, so the triples are never visited one by one
+    private void verifyTransitivity(final Group lesser,
+                                    final Group equal,
+                                    final Group greater) {
+        run(transitivityCheck(lesser, equal, greater));
+    }
+
+    private IndexedCheck transitivityCheck(final Group lesser,
+                                           final Group equal,
+                                           final Group greater) {
+        final int[] firstGreaterAfterEqual = firstNotGreater(equal, greater);
+        final int[] firstGreaterAfterLesser = firstNotGreater(lesser, greater);
+
+        return new IndexedCheck() {
+            @Override
+            long size() {
+                return (long) lesser.size() * equal.size();
+            }
+
+            @Override
+            void verify(final long index) {
+                final int l = (int) (index / equal.size());
+                final int e = (int) (index % equal.size());
+
+                final int la = lesser.from + l;
+                final int ea = equal.from + e;
+                final int equalToLesser = signs.signOrThrown(ea, la);
+                if (equalToLesser == SignMatrix.THROWN) {
+                    thrownViolation(VerificationClause.TRANSITIVITY, index, ea, la);
+                    return;
+                }
+                final int g = equalToLesser > 0
+                        ? Math.min(firstGreaterAfterEqual[e], firstGreaterAfterLesser[l])
+                        : 0;
+                if (g >= greater.size())
+                    return;
+
+                final int ga = greater.from + g;
+                if (signs.signOrThrown(ga, ea) == SignMatrix.THROWN)
+                    thrownViolation(VerificationClause.TRANSITIVITY, index, ga, ea);
+                else if (signs.signOrThrown(ga, la) == SignMatrix.THROWN)
+                    thrownViolation(VerificationClause.TRANSITIVITY, index, ga, la);
+                else
+                    violation(VerificationClause.TRANSITIVITY, index,
+                            "Instances %s, %s, %s, are not transitive!", la, ea, ga);
+            }
+        };
+    }
+
+    // for every instance of the lower group finds the index of the first
+    // instance of the upper group that is not greater than it or that threw
+    private int[] firstNotGreater(final Group lower,
+                                  final Group upper) {
+        final int[] first = new int[lower.size()];
+        run(new IndexedCheck() {
+            @Override
+            long size() {
+                return lower.size();
+            }
+
+            @Override
+            void verify(final long index) {
+                final int a = lower.from + (int) index;
+                int b = 0;
+                while (b < upper.size() && signs.signOrThrown(upper.from + b, a) == 1) {
+                    b++;
+                }
+                first[(int) index] = b;
+            }
+        });
+        return first;
+    }
+
+    // sorts all of the instances and checks that every pair compares according
+    // to the positions in the sorted order, this proves that
+    // sgn(compare(a, b)) > 0 && sgn(compare(b, c)) > 0 => sgn(compare(a, c)) > 0
+    // holds for all triples, including the ones within a single group
+    private void verifyTotalOrder() {
+        final IndexedCheck check = totalOrderCheck();
+        try {
+            run(check);
+        } catch (final AssertionError violation) {
+            totalOrderViolation();
+        }
+    }
+
+    // returns the verified fraction of the pairs
+    private double verifyTotalOrderWithin(final long checkDeadline) {
+        final IndexedCheck check = totalOrderCheck();
+        try {
+            return runWithin(check, checkDeadline);
+        } catch (final AssertionError violation) {
+            totalOrderViolation();
+            return 1;
+        }
+    }
+
+    private IndexedCheck totalOrderCheck() {
+        final int size = signs.size();
+        final int[] order = IndexSort.sort(size, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(final int a, final int b) {
+                // the pairs that threw are out of order wherever they are sorted
+                final int sign = signs.signOrThrown(a, b);
+                return sign == SignMatrix.THROWN ? 0 : sign;
+            }
+        });
+
+        // instances that compare as equal share the rank
+        final int[] ranks = new int[size];
+        for (int p = 1; p < size; p++) {
+            final int rank = signs.signOrThrown(order[p - 1], order[p]) == 0 ? 0 : 1;
+            ranks[order[p]] = ranks[order[p - 1]] + rank;
+        }
+
+        // the pairs are walked row by row of the matrix, not of the order
+        return new IndexedCheck() {
+            @Override
+            long size() {
+                return (long) size * size;
+            }
+
+            @Override
+            void verify(final long index) {
+                final int a = (int) (index / size);
+                final int b = (int) (index % size);
+
+                if (signs.signOrThrown(a, b) != Integer.signum(ranks[a] - ranks[b]))
+                    throw new AssertionError("Instances are not in a total order!");
+            }
+        };
+    }
+
+    // the pair that is out of order is rarely the cause, the minimal
+    // counterexample is searched only once the order is known to be broken
+    private void totalOrderViolation() {
+        final int[] counterexample = OrderCycles.findCounterexample(signs);
+        violation(VerificationClause.TOTAL_ORDER, 0, counterexamplePattern(signs, counterexample), counterexample);
+    }
+
+    // reports the pair whose comparison, compare(a, b), threw an exception
+    private void thrownViolation(final VerificationClause clause,
+                                 final long key,
+                                 final int a,
+                                 final int b) {
+        if (a == b)
+            violation(clause, key, counterexamplePattern(new int[]{a}), a);
+        else
+            violation(clause, key, thrownPattern(signs.signOrThrown(b, a) == SignMatrix.THROWN), a, b);
+    }
+
+    // format of the message describing a pair whose first comparison threw an exception
+    static String thrownPattern(final boolean reverseThrown) {
+        return reverseThrown
+                ? "Comparing %1$s to %2$s threw an exception and so did %2$s to %1$s!"
+                : "Comparing %1$s to %2$s threw an exception but %2$s to %1$s did not!";
+    }
+
+    // format of the message describing a counterexample found by OrderCycles,
+    // a pair that threw is swapped if needed, so that its first comparison threw
+    static String counterexamplePattern(final SignMatrix<?> signs, final int[] counterexample) {
+        if (counterexample.length == 2 && signs.signOrThrown(counterexample[0], counterexample[1]) != SignMatrix.THROWN
+                && signs.signOrThrown(counterexample[1], counterexample[0]) == SignMatrix.THROWN) {
+            final int swap = counterexample[0];
+            counterexample[0] = counterexample[1];
+            counterexample[1] = swap;
+        }
+        if (counterexample.length == 2 && signs.signOrThrown(counterexample[0], counterexample[1]) == SignMatrix.THROWN)
+            return thrownPattern(signs.signOrThrown(counterexample[1], counterexample[0]) == SignMatrix.THROWN);
+
+        return counterexamplePattern(counterexample);
+    }
+
+    private static String counterexamplePattern(final int[] counterexample) {
+        switch (counterexample.length) {
+            case 1:
+                return "Instance %s does not compare as equal to itself!";
+            case 2:
+                return "Instances %s, %s, do not implement a total order!";
+            default:
+                return "Instances %s, %s, %s, are not transitive!";
+        }
+    }
+
+    // sgn(compare(a, b)) == -sgn(compare(b, a))
+    // compare(a, b) should throw exception iff compare(b, a) throws
+    private void verifyReverse(final Group first,
+                               final Group second) {
+        run(new IndexedCheck() {
+            @Override
+            long size() {
+                return (long) first.size() * second.size();
+            }
+
+            @Override
+            void verify(final long index) {
+                final long pair = signs.isMapped()
+                        ? tiledPair(index, first.size(), second.size())
+                        : index;
+                final int a = first.from + (int) (pair / second.size());
+                final int b = second.from + (int) (pair % second.size());
+
+                // getting info for sgn(compare(a, b)) part
+                final int signOfAtoB = signs.signOrThrown(a, b);
+                final boolean exceptionOnAtoBCompare = signOfAtoB == SignMatrix.THROWN;
+
+                // getting info for sgn(compare(b, a)) part
+                final int signOfBtoA = signs.signOrThrown(b, a);
+                final boolean exceptionOnBtoACompare = signOfBtoA == SignMatrix.THROWN;
+
+                // if the compare(a, b) threw an exception but compare(b, a) did not
+                final long key = (long) a * signs.size() + b;
+                if (exceptionOnAtoBCompare && !exceptionOnBtoACompare) {
+                    violation(VerificationClause.ANTISYMMETRY, key,
+                            "Comparing %1$s to %2$s threw an exception but %2$s to %1$s did not!", a, b);
+                    return;
+                }
+                // if the compare(b, a) threw an exception but compare(a, b) did not
+                if (!exceptionOnAtoBCompare && exceptionOnBtoACompare) {
+                    violation(VerificationClause.ANTISYMMETRY, key,
+                            "Comparing %1$s to %2$s threw an exception but %2$s to %1$s did not!", b, a);
+                    return;
+                }
+                // if both compare(a, b) and compare(b, a) threw an exception
+                if (exceptionOnAtoBCompare && exceptionOnBtoACompare) {
+                    thrownViolation(VerificationClause.ANTISYMMETRY, key, a, b);
+                    return;
+                }
+                // if sgn(compare(a, b)) != -sgn(compare(b, a))
+                if (signOfAtoB != -signOfBtoA) {
+                    violation(VerificationClause.ANTISYMMETRY, key, "Instances do not implement a total order!", a, b);
+                }
+            }
+        });
+    }
+
+    // maps the index of a pair to the row-major index of the pair visited
+    // at that index when the pairs are walked in square tiles, the rows of
+    // the two instances of the pairs of a tile then stay in the page cache
+    static long tiledPair(final long index, final int rows, final int columns) {
+        final long bandSize = (long) TILE * columns;
+        final int band = (int) (index / bandSize);
+        final int bandRows = Math.min(TILE, rows - band * TILE);
+        final long inBand = index - band * bandSize;
+
+        final long tileSize = (long) bandRows * TILE;
+        final int tile = (int) (inBand / tileSize);
+        final int tileColumns = Math.min(TILE, columns - tile * TILE);
+        final int inTile = (int) (inBand - tile * tileSize);
+
+        final int row = band * TILE + inTile / tileColumns;
+        final int column = tile * TILE + inTile % tileColumns;
+        return (long) row * columns + column;
+    }
+
+    // a budgeted verification compares the pairs lazily on the calling thread
+    private void run(final IndexedCheck check) {
+        if (null == options.pool || 0 != options.budgetNanos)
+            IndexedChecks.runSequentially(check);
+        else
+            IndexedChecks.runInParallel(options.pool, check);
+    }
+
+    // (compare(a, b) == 0) == a.equals(b) for all of the instances, equals is
+    // called only for the pairs that share a hash code and for the pairs that
+    // compare as equal but have different hash codes, the latter are found
+    // among the neighbours in the sorted order, so the check makes O(n log n)
+    // comparisons and O(n) equals calls unless the hash codes collide
+    void verifyConsistentWithEquals() {
+        if (options.suppressConsistentWithEquals)
+            return;
+
+        startCheck();
+        final int size = signs.size();
+        final int[] hashes = new int[size];
+        for (int a = 0; a < size; a++) {
+            hashes[a] = signs.instance(a).hashCode();
+        }
+
+        // the instances created by the Equal instances creator are supposed
+        // to be the same in terms of equals implementation, the pairs of the
+        // same hash code are left to the buckets
+        for (int a = equal.from + 1; a < equal.to; a++) {
+            if (hashes[a] != hashes[equal.from])
+                verifyConsistentWithEquals(equal.from, a);
+        }
+
+        // all of the pairs within the buckets of the same hash code
+        final int[] byHash = IndexSort.sort(size, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(final int a, final int b) {
+                return Integer.compare(hashes[a], hashes[b]);
+            }
+        });
+        for (int from = 0, to; from < size; from = to) {
+            to = from + 1;
+            while (to < size && hashes[byHash[to]] == hashes[byHash[from]]) {
+                to++;
+            }
+            for (int p = from; p < to; p++) {
+                for (int q = p + 1; q < to; q++) {
+                    verifyConsistentWithEquals(Math.min(byHash[p], byHash[q]), Math.max(byHash[p], byHash[q]));
+                }
+            }
+        }
+
+        // the instances that compare as equal are neighbours in the sorted
+        // order, the exceptions are left to the order checks, no two
+        // neighbours are the same pair, so only the pairs of the first equal
+        // instance that were checked above have to be skipped
+        final int[] order = IndexSort.sort(size, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(final int a, final int b) {
+                return signs.signOrThrown(a, b);
+            }
+        });
+        for (int p = 1; p < size; p++) {
+            final int a = Math.min(order[p - 1], order[p]);
+            final int b = Math.max(order[p - 1], order[p]);
+            final boolean checked = a == equal.from && b < equal.to;
+            if (!checked && hashes[a] != hashes[b] && signs.signOrThrown(a, b) == 0)
+                verifyConsistentWithEquals(a, b);
+        }
+        endCheck(VerificationClause.CONSISTENT_WITH_EQUALS.name());
+    }
+
+    private void verifyConsistentWithEquals(final int a, final int b) {
+        final int sign = signs.signOrThrown(a, b);
+        if (sign == SignMatrix.THROWN)
+            return;
+
+        final boolean equals = instanceEquals(a, signs.instance(b));
+        if (equals != (sign == 0))
+            violation(VerificationClause.CONSISTENT_WITH_EQUALS, pairKey(a, b),
+                    comparison + " is not consistent with equals!", a, b);
+    }
+
+    private long pairKey(final int a, final int b) {
+        return (long) a * signs.size() + b;
+    }
+
+    static <A> List<A> verifyInstancesCreator(
+            final VerificationInstancesCreator<A> creator,
+            final String type
+    ) {
+        if (null == creator)
+            throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot be null!");
+
+        final List<A> instances = creator.create();
+        if (null == instances)
+            throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot return null instances!");
+
+        if (instances.isEmpty())
+            throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot return empty list of instances!");
+
+        for (final A instance : instances) {
+            if (null == instance)
+                throw new IllegalArgumentException("VerificationInstancesCreator (" + type + ") cannot contain null instances!");
+        }
+
+        return instances;
+    }
+
+    // instances split into the classes of the instances that compare as
+    // equal, the classes never span two groups
+    private static final class EquivalenceClasses {
+        // instances ordered by their classes, the representative goes first
+        final int[] order;
+        // class c occupies order[from[c]] until order[from[c + 1]]
+        final int[] from;
+        final int[] classOf;
+        // classes of the group g are the classes from groupFrom[g] until groupFrom[g + 1]
+        final int[] groupFrom = new int[5];
+
+        private int count = 0;
+        private int classCount = 0;
+        private int groupCount = 0;
+
+        EquivalenceClasses(final int size) {
+            this.order = new int[size];
+            this.from = new int[size + 1];
+            this.classOf = new int[size];
+        }
+
+        void add(final int instance, final boolean isRepresentative) {
+            if (isRepresentative)
+                from[classCount++] = count;
+            classOf[instance] = classCount - 1;
+            order[count++] = instance;
+            from[classCount] = count;
+        }
+
+        void endGroup() {
+            groupFrom[++groupCount] = classCount;
+        }
+
+        <A> List<A> representatives(final List<A> instances, final int group) {
+            final List<A> representatives = new ArrayList<A>(groupFrom[group + 1] - groupFrom[group]);
+            for (int c = groupFrom[group]; c < groupFrom[group + 1]; c++) {
+                representatives.add(instances.get(order[from[c]]));
+            }
+            return representatives;
+        }
+    }
+
+    // a range of indices in the sign matrix occupied by the instances
+    // returned by one of the creators
+    private static final class Group {
+        final int from;
+        final int to;
+
+        private Group(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        static <A> Group append(final List<A> instances, final List<A> group) {
+            final int from = instances.size();
+            instances.addAll(group);
+            return new Group(from, instances.size());
+        }
+
+        int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Persistent record of the verifications that passed.
+ * <p>
+ * A passed verification is stored as an empty file named after its key, the
+ * SHA-256 of:
+ * <ul>
+ * <li>the bytecode of the classes of the instances, of the creators and the
+ * classes enclosing them, e.g. the test building the fixtures, and of the
+ * verifier, and of all of the classes they reference through their constant
+ * pools, transitively, except the classes of the platform</li>
+ * <li>the fingerprint of the instances, their groups, classes and
+ * {@link Object#toString()} representations or the fingerprints given by the
+ * user</li>
+ * <li>the settings of the verification</li>
+ * <li>the version of the JVM, which stands for the classes of the platform</li>
+ * </ul>
+ * The key changes whenever the compared code, the verifier, the creators or
+ * the instances change, so a verification found in the cache would pass
+ * again, as long as the fingerprints show all of the state that compareTo
+ * and equals depend on. The key is not computed for classes whose bytecode
+ * cannot be read, e.g. generated ones or lambdas, and for more than
+ * {@link #MAX_CLASSES} referenced classes, such verifications are never
+ * cached.
+ */
+final class VerificationCache {
+    // larger closures of the referenced classes are not digested
+    private static final int MAX_CLASSES = 1024;
+    // classes of these packages change only with the JVM
+    private static final String[] PLATFORM_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    private final File directory;
+
+    VerificationCache(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the key of the verification or null if it cannot be cached.
+     *
+     * @param verifier     class of the verifier running the verification.
+     * @param creators     creators of the instances, the missing ones are null.
+     * @param verification verification of the instances.
+     * @param fingerprint  fingerprint of an instance or null for its string representation.
+     * @param settings     settings that may change the result of the verification.
+     * @return key of the verification or null.
+     */
+    <A> String key(final Class<?> verifier,
+                   final Collection<?> creators,
+                   final Verification<A> verification,
+                   final Function<? super A, String> fingerprint,
+                   final String settings) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exc) {
+            // every JVM has to support SHA-256, the verification is just not cached
+            return null;
+        }
+
+        final Set<Class<?>> roots = new LinkedHashSet<Class<?>>();
+        roots.add(verifier);
+        // the fixtures are often built in the creators or the tests enclosing them
+        for (final Object creator : creators) {
+            if (null == creator)
+                continue;
+
+            // the bytecode of a lambda cannot be read
+            if (creator.getClass().isSynthetic())
+                return null;
+
+            for (Class<?> type = creator.getClass(); null != type; type = type.getEnclosingClass()) {
+                roots.add(type);
+            }
+        }
+        for (int i = 0; i < verification.size(); i++) {
+            roots.add(verification.instance(i).getClass());
+        }
+        if (!updateWithBytecode(digest, roots))
+            return null;
+
+        verification.fingerprint(digest, fingerprint);
+        update(digest, settings);
+        update(digest, String.valueOf(System.getProperty("java.version")));
+        update(digest, String.valueOf(System.getProperty("java.vm.version")));
+
+        final StringBuilder key = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    boolean contains(final String key) {
+        return new File(directory, key).isFile();
+    }
+
+    void store(final String key) {
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs())
+                return;
+
+            // other builds may store the same key at the same time
+            final File temporary = File.createTempFile(key, ".tmp", directory);
+            if (!temporary.renameTo(new File(directory, key)))
+                temporary.delete();
+        } catch (final IOException exc) {
+            // the cache only saves time, a passed verification does not fail because of it
+        }
+    }
+
+    /**
+     * Updates the digest with the length and the UTF-8 bytes of the string,
+     * so the concatenated strings cannot be confused.
+     */
+    static void update(final MessageDigest digest, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    static void update(final MessageDigest digest, final int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    // breadth first search through the constant pools, returns false if the
+    // bytecode of a class cannot be read or there are too many classes
+    private static boolean updateWithBytecode(final MessageDigest digest,
+                                              final Collection<Class<?>> roots) {
+        final Set<String> visited = new HashSet<String>();
+        final Deque<Class<?>> queue = new ArrayDeque<Class<?>>();
+        for (final Class<?> root : roots) {
+            if (!isPlatform(root.getName()) && visited.add(root.getName()))
+                queue.add(root);
+        }
+
+        while (!queue.isEmpty()) {
+            final Class<?> type = queue.poll();
+            final byte[] bytecode = bytecode(type);
+            if (null == bytecode)
+                return false;
+
+            update(digest, type.getName());
+            update(digest, bytecode.length);
+            digest.update(bytecode);
+
+            final List<String> references = classReferences(bytecode);
+            if (null == references)
+                return false;
+
+            for (final String reference : references) {
+                if (isPlatform(reference) || !visited.add(reference))
+                    continue;
+
+                if (visited.size() > MAX_CLASSES)
+                    return false;
+
+                try {
+                    queue.add(Class.forName(reference, false, loader(type)));
+                } catch (final ClassNotFoundException | LinkageError exc) {
+                    // a class missing at runtime is recorded by its name only
+                    update(digest, "?" + reference);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPlatform(final String name) {
+        for (final String platform : PLATFORM_PACKAGES) {
+            if (name.startsWith(platform))
+                return true;
+        }
+        return false;
+    }
+
+    private static ClassLoader loader(final Class<?> type) {
+        final ClassLoader loader = type.getClassLoader();
+        return null == loader ? ClassLoader.getSystemClassLoader() : loader;
+    }
+
+    private static byte[] bytecode(final Class<?> type) {
+        final InputStream input = loader(type).getResourceAsStream(type.getName().replace('.', '/') + ".class");
+        if (null == input)
+            return null;
+
+        try {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } catch (final IOException exc) {
+            return null;
+        } finally {
+            try {
+                input.close();
+            } catch (final IOException exc) {
+                // the bytecode was already read
+            }
+        }
+    }
+
+    // binary names of the classes in the constant pool or null if the
+    // class file cannot be parsed
+    private static List<String> classReferences(final byte[] bytecode) {
+        try {
+            final DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytecode));
+            if (input.readInt() != 0xCAFEBABE)
+                return null;
+
+            input.readUnsignedShort(); // minor version
+            input.readUnsignedShort(); // major version
+            final int count = input.readUnsignedShort();
+            final String[] utf8 = new String[count];
+            final int[] classes = new int[count];
+            int classCount = 0;
+            for (int index = 1; index < count; index++) {
+                final int tag = input.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8
+                        utf8[index] = input.readUTF();
+                        break;
+                    case 7: // Class
+                        classes[classCount++] = input.readUnsignedShort();
+                        break;
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        input.skipBytes(2);
+                        break;
+                    case 15: // MethodHandle
+                        input.skipBytes(3);
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        input.skipBytes(4);
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        input.skipBytes(8);
+                        // takes two entries of the pool
+                        index++;
+                        break;
+                    default:
+                        return null;
+                }
+            }
+
+            final List<String> references = new ArrayList<String>(classCount);
+            for (int c = 0; c < classCount; c++) {
+                final String entry = utf8[classes[c]];
+                if (null == entry)
+                    return null;
+
+                // arrays reference the class of their elements, arrays of primitives none
+                final String element = entry.substring(entry.lastIndexOf('[') + 1);
+                if (!entry.startsWith("["))
+                    references.add(entry.replace('/', '.'));
+                else if (element.startsWith("L") && element.endsWith(";"))
+                    references.add(element.substring(1, element.length() - 1).replace('/', '.'));
+            }
+            return references;
+        } catch (final IOException exc) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+/**
+ * Clauses of the contract checked by the verifiers, used to group the
+ * violations of a {@link VerificationReport}.
+ *
+ * @see VerificationReport
+ */
+public enum VerificationClause {
+    /**
+     * {@code (compare(a, b) == 0) == a.equals(b)}
+     */
+    CONSISTENT_WITH_EQUALS,
+    /**
+     * {@code a.equals(null) == false}
+     */
+    EQUALS_TO_NULL_RETURNS_FALSE,
+    /**
+     * {@code a.compareTo(null)} throws an exception
+     */
+    EXCEPTION_ON_COMPARE_TO_NULL,
+    /**
+     * {@code sgn(compare(a, b)) == -sgn(compare(b, a))} and
+     * {@code compare(a, b)} throws an exception iff {@code compare(b, a)} does
+     */
+    ANTISYMMETRY,
+    /**
+     * {@code sgn(compare(a, b)) > 0 && sgn(compare(b, c)) > 0 => sgn(compare(a, c)) > 0}
+     * for the lesser, equal and greater instances
+     */
+    TRANSITIVITY,
+    /**
+     * {@code sgn(compare(a, b)) == 0 => sgn(compare(a, c)) == sgn(compare(b, c))}
+     */
+    SUBSTITUTABILITY,
+    /**
+     * all of the instances, including the ones within a single group, are
+     * in a total order
+     */
+    TOTAL_ORDER,
+    /**
+     * {@code sgn(compare(a, b)) == sgn(reference.compare(a, b))}, checked by
+     * the {@link DifferentialVerifier}
+     */
+    SAME_ORDER_AS_REFERENCE
+}
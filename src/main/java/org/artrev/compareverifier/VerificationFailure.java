@@ -0,0 +1,33 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+/**
+ * Violation of the contract found by one of the checks of a
+ * {@link Verification}, remembers the instances that witness it, so they can
+ * be shrunk before the violation is reported.
+ */
+final class VerificationFailure extends AssertionError {
+    private static final long serialVersionUID = 1L;
+
+    // indices of the witnessing instances
+    final int[] witnesses;
+
+    VerificationFailure(final String message, final int... witnesses) {
+        super(message);
+        this.witnesses = witnesses;
+    }
+}
@@ -18,6 +18,9 @@ package org.artrev.compareverifier;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * A collection of functions for easy creation of {@link VerificationInstancesCreator}
@@ -45,11 +48,35 @@ import java.util.List;
  *         );
  * }
  * </pre>
+ * <p>
+ * Large sets of instances can be generated from a seed instead of listing
+ * them by hand.
+ * <p>
+ * <b>Example Generation:</b>
+ * <pre>
+ * {@code
+ * final VerificationInstancesCreator<BigDecimal> lesserCreator =
+ *         VerificationInstancesCreators.generated(
+ *             42L,     // seed, the same seed always creates the same instances
+ *             100000,  // number of the created instances
+ *             new InstanceGenerator<BigDecimal>() {
+ *                 public BigDecimal generate(final SplittableRandom random) {
+ *                     return BigDecimal.valueOf(random.nextLong(-1000000, 42), random.nextInt(4));
+ *                 }
+ *             },
+ *             ForkJoinPool.commonPool()
+ *         );
+ * }
+ * </pre>
  *
  * @see VerificationInstancesCreator
  * @see ComparableVerifier
  */
 public final class VerificationInstancesCreators {
+    // instances generated from a single split of the seeded random, the
+    // chunks do not depend on the number of threads, so neither do the instances
+    private static final int GENERATED_CHUNK_SIZE = 1024;
+
     private VerificationInstancesCreators() {
         throw new IllegalStateException("VerificationInstancesCreators should not be instantiated!");
     }
@@ -73,6 +100,71 @@ public final class VerificationInstancesCreators {
         };
     }
 
+    /**
+     * Creates a {@link VerificationInstancesCreator} that generates the given
+     * number of instances on the calling thread. Every call of
+     * {@link VerificationInstancesCreator#create()} generates new instances,
+     * the same ones for the same seed.
+     *
+     * @param seed      seed of the random used by the generator.
+     * @param count     number of the generated instances.
+     * @param generator generator of a single instance.
+     * @param <A>       type of the instances returned by the Creator.
+     * @return instance of {@link VerificationInstancesCreator}
+     */
+    public static <A> VerificationInstancesCreator<A> generated(final long seed,
+                                                                final int count,
+                                                                final InstanceGenerator<? extends A> generator) {
+        return generated(seed, count, generator, null);
+    }
+
+    /**
+     * Creates a {@link VerificationInstancesCreator} that generates the given
+     * number of instances on the threads of the given {@link ForkJoinPool}.
+     * <p>
+     * The seeded random is split into a random per chunk of the instances on
+     * the calling thread, so the generated instances do not depend on the
+     * number of threads and are the same as the ones generated sequentially.
+     *
+     * @param seed      seed of the random used by the generator.
+     * @param count     number of the generated instances.
+     * @param generator generator of a single instance.
+     * @param pool      pool used for generating the instances.
+     * @param <A>       type of the instances returned by the Creator.
+     * @return instance of {@link VerificationInstancesCreator}
+     */
+    public static <A> VerificationInstancesCreator<A> generated(final long seed,
+                                                                final int count,
+                                                                final InstanceGenerator<? extends A> generator,
+                                                                final ForkJoinPool pool) {
+        if (count < 1)
+            throw new IllegalArgumentException("Count must be positive!");
+
+        if (null == generator)
+            throw new IllegalArgumentException("InstanceGenerator cannot be null!");
+
+        return new VerificationInstancesCreator<A>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public List<A> create() {
+                final Object[] instances = new Object[count];
+                final SplittableRandom seeded = new SplittableRandom(seed);
+                final SplittableRandom[] randoms =
+                        new SplittableRandom[(count + GENERATED_CHUNK_SIZE - 1) / GENERATED_CHUNK_SIZE];
+                for (int chunk = 0; chunk < randoms.length; chunk++) {
+                    randoms[chunk] = seeded.split();
+                }
+
+                if (null == pool)
+                    generate(instances, randoms, generator, 0, randoms.length);
+                else
+                    pool.invoke(new GenerateTask(instances, randoms, generator, 0, randoms.length));
+
+                return (List<A>) Arrays.asList(instances);
+            }
+        };
+    }
+
     /**
      * Creates a {@link VerificationInstancesCreator} that will return a List
      * with a null value.
@@ -122,4 +214,54 @@ public final class VerificationInstancesCreators {
             }
         };
     }
+
+    // generates the instances of the chunks [from, to)
+    private static void generate(final Object[] instances,
+                                 final SplittableRandom[] randoms,
+                                 final InstanceGenerator<?> generator,
+                                 final int from,
+                                 final int to) {
+        for (int chunk = from; chunk < to; chunk++) {
+            final int end = Math.min(instances.length, (chunk + 1) * GENERATED_CHUNK_SIZE);
+            for (int i = chunk * GENERATED_CHUNK_SIZE; i < end; i++) {
+                instances[i] = generator.generate(randoms[chunk]);
+            }
+        }
+    }
+
+    // every task owns whole chunks, so no instance is written by two threads
+    private static final class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] instances;
+        private final SplittableRandom[] randoms;
+        private final InstanceGenerator<?> generator;
+        private final int from;
+        private final int to;
+
+        GenerateTask(final Object[] instances,
+                     final SplittableRandom[] randoms,
+                     final InstanceGenerator<?> generator,
+                     final int from,
+                     final int to) {
+            this.instances = instances;
+            this.randoms = randoms;
+            this.generator = generator;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(
+                        new GenerateTask(instances, randoms, generator, from, middle),
+                        new GenerateTask(instances, randoms, generator, middle, to)
+                );
+                return;
+            }
+            generate(instances, randoms, generator, from, to);
+        }
+    }
 }
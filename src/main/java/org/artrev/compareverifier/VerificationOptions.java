@@ -0,0 +1,48 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Settings of a {@link Verification} collected by the builder methods of
+ * {@link ComparableVerifier} and {@link ComparatorVerifier}.
+ */
+final class VerificationOptions {
+    boolean suppressConsistentWithEquals = false;
+
+    // null means that the checks run sequentially
+    ForkJoinPool pool = null;
+
+    // verifies the order on the representatives of the equivalence classes
+    boolean compressEquivalenceClasses = false;
+
+    boolean suppressShrinking = false;
+    // null means that the instances themselves are not shrunk
+    Shrinker<?> shrinker = null;
+
+    // 0 means that the checks are never sampled
+    long budgetNanos = 0;
+
+    // 0 means that the latency of the comparisons is not verified
+    long maxCompareLatencyNanos = 0;
+    double compareLatencyPercentile = 100;
+
+    // null means that the comparison results are always kept on the heap
+    File spillDirectory = null;
+    long heapLimitBytes = 0;
+}
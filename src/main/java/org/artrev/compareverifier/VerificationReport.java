@@ -0,0 +1,178 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All of the violations found by {@code verifyAll()} of the verifiers.
+ * <p>
+ * Only the first violations of every clause are stored, the rest is just
+ * counted, so the memory used by the report is bounded even if almost every
+ * pair of the instances violates the contract. The stored violations are the
+ * ones found first by the sequential verification, also when the
+ * verification runs in parallel.
+ * <p>
+ * <b>Example Usage:</b>
+ * <pre>
+ * {@code
+ * final VerificationReport report = ComparableVerifier
+ *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+ *     .verifyAll();
+ * for (final VerificationViolation violation : report.violations()) {
+ *     System.out.println(violation);
+ * }
+ * }
+ * </pre>
+ *
+ * @see VerificationViolation
+ * @see VerificationClause
+ */
+public final class VerificationReport {
+    /**
+     * Number of the violations stored for every clause by default.
+     */
+    public static final int DEFAULT_MAX_VIOLATIONS_PER_CLAUSE = 10;
+
+    private final int maxViolationsPerClause;
+    private final Map<VerificationClause, List<VerificationViolation>> violations =
+            new EnumMap<VerificationClause, List<VerificationViolation>>(VerificationClause.class);
+    private final Map<VerificationClause, Long> counts =
+            new EnumMap<VerificationClause, Long>(VerificationClause.class);
+
+    VerificationReport(final int maxViolationsPerClause) {
+        if (maxViolationsPerClause < 1)
+            throw new IllegalArgumentException("Number of stored violations must be positive!");
+
+        this.maxViolationsPerClause = maxViolationsPerClause;
+        for (final VerificationClause clause : VerificationClause.values()) {
+            violations.put(clause, new ArrayList<VerificationViolation>());
+            counts.put(clause, 0L);
+        }
+    }
+
+    // keeps the violations with the lowest keys, so the stored ones do not
+    // depend on the order in which the parallel tasks find them
+    synchronized void add(final VerificationClause clause,
+                          final long key,
+                          final String pattern,
+                          final Object[] instances) {
+        counts.put(clause, counts.get(clause) + 1);
+
+        final List<VerificationViolation> stored = violations.get(clause);
+        if (stored.size() == maxViolationsPerClause && stored.get(stored.size() - 1).key <= key)
+            return;
+
+        int position = stored.size();
+        while (position > 0 && stored.get(position - 1).key > key) {
+            position--;
+        }
+        stored.add(position, new VerificationViolation(clause, key, pattern, instances));
+        if (stored.size() > maxViolationsPerClause)
+            stored.remove(stored.size() - 1);
+    }
+
+    /**
+     * Returns true if no violation was found.
+     *
+     * @return true if the verification passed.
+     */
+    public synchronized boolean isPassed() {
+        return violationCount() == 0;
+    }
+
+    /**
+     * Returns the number of all of the found violations, including the ones
+     * that are not stored.
+     *
+     * @return number of the violations.
+     */
+    public synchronized long violationCount() {
+        long count = 0;
+        for (final long clauseCount : counts.values()) {
+            count += clauseCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of the found violations of the clause, including
+     * the ones that are not stored.
+     *
+     * @param clause verified clause.
+     * @return number of the violations of the clause.
+     */
+    public synchronized long violationCount(final VerificationClause clause) {
+        return counts.get(clause);
+    }
+
+    /**
+     * Returns the stored violations of all clauses, in the order of the
+     * clauses and in the order they were found.
+     *
+     * @return stored violations.
+     */
+    public synchronized List<VerificationViolation> violations() {
+        final List<VerificationViolation> all = new ArrayList<VerificationViolation>();
+        for (final List<VerificationViolation> clauseViolations : violations.values()) {
+            all.addAll(clauseViolations);
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Returns the stored violations of the clause in the order they were
+     * found.
+     *
+     * @param clause verified clause.
+     * @return stored violations of the clause.
+     */
+    public synchronized List<VerificationViolation> violations(final VerificationClause clause) {
+        return Collections.unmodifiableList(new ArrayList<VerificationViolation>(violations.get(clause)));
+    }
+
+    /**
+     * Throws an {@link AssertionError} listing the violations if any was
+     * found.
+     */
+    public void assertPassed() {
+        if (!isPassed())
+            throw new AssertionError(toString());
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (isPassed())
+            return "No violations found!";
+
+        final StringBuilder builder = new StringBuilder()
+                .append(violationCount())
+                .append(" violations found!");
+        for (final VerificationClause clause : VerificationClause.values()) {
+            for (final VerificationViolation violation : violations.get(clause)) {
+                builder.append('\n').append(violation);
+            }
+            final long skipped = counts.get(clause) - violations.get(clause).size();
+            if (skipped > 0)
+                builder.append('\n').append(clause).append(": ").append(skipped).append(" more");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,267 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Statistics of a passed verification, returned by
+ * {@link ComparableVerifier#verifyWithStatistics()} and
+ * {@link ComparatorVerifier#verifyWithStatistics()}.
+ * <p>
+ * Every check records the number of the comparisons and the equals calls it
+ * made and its wall time. The checks of the clauses are named after the
+ * {@link VerificationClause}, the other steps of the verification are named
+ * by the constants of this class. The comparisons are memoized, thus a pair
+ * compared by an earlier check is not counted again by the later ones.
+ * <p>
+ * <b>Example Statistics:</b>
+ * <pre>
+ * {@code
+ * VerificationStatistics statistics = ComparableVerifier
+ *     .forInstances(lesserCreator, equalCreator, greaterCreator)
+ *     .verifyWithStatistics();
+ * for (VerificationStatistics.Check check : statistics.checks()) {
+ *     System.out.println(check.name() + ": " + check.comparisons());
+ * }
+ * }
+ * </pre>
+ */
+public final class VerificationStatistics {
+    /**
+     * Comparing all of the pairs up front, so they can be read by many threads.
+     */
+    public static final String SIGN_MATRIX_FILL = "SIGN_MATRIX_FILL";
+    /**
+     * Partitioning the instances into the classes of the equal instances.
+     */
+    public static final String EQUIVALENCE_CLASSES = "EQUIVALENCE_CLASSES";
+    /**
+     * Verifying the order of the representatives of the equivalence classes.
+     */
+    public static final String REPRESENTATIVES = "REPRESENTATIVES";
+    /**
+     * Measuring the latency of the comparisons.
+     */
+    public static final String COMPARE_LATENCY = "COMPARE_LATENCY";
+
+    private final int lesserInstances;
+    private final int equalInstances;
+    private final int greaterInstances;
+    private final int additionalInstances;
+    private final long creationNanos;
+    private final List<Check> checks = new ArrayList<Check>();
+    private long totalNanos = 0;
+
+    VerificationStatistics(final int lesserInstances,
+                           final int equalInstances,
+                           final int greaterInstances,
+                           final int additionalInstances,
+                           final long creationNanos) {
+        this.lesserInstances = lesserInstances;
+        this.equalInstances = equalInstances;
+        this.greaterInstances = greaterInstances;
+        this.additionalInstances = additionalInstances;
+        this.creationNanos = creationNanos;
+    }
+
+    /**
+     * @return number of the instances created by the "lesser" instances factory.
+     */
+    public int lesserInstances() {
+        return lesserInstances;
+    }
+
+    /**
+     * @return number of the instances created by the "equal" instances factory.
+     */
+    public int equalInstances() {
+        return equalInstances;
+    }
+
+    /**
+     * @return number of the instances created by the "greater" instances factory.
+     */
+    public int greaterInstances() {
+        return greaterInstances;
+    }
+
+    /**
+     * @return number of the instances created by the additional instances factory.
+     */
+    public int additionalInstances() {
+        return additionalInstances;
+    }
+
+    /**
+     * @return wall time of creating the instances in nanoseconds.
+     */
+    public long creationNanos() {
+        return creationNanos;
+    }
+
+    /**
+     * @return wall time of the whole verification, including the creation
+     * of the instances, in nanoseconds.
+     */
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return number of the comparisons made by all of the checks.
+     */
+    public long comparisons() {
+        long comparisons = 0;
+        for (final Check check : checks) {
+            comparisons += check.comparisons;
+        }
+        return comparisons;
+    }
+
+    /**
+     * @return number of the equals calls made by all of the checks.
+     */
+    public long equalsCalls() {
+        long equalsCalls = 0;
+        for (final Check check : checks) {
+            equalsCalls += check.equalsCalls;
+        }
+        return equalsCalls;
+    }
+
+    /**
+     * @return statistics of the checks in the order in which they ran.
+     */
+    public List<Check> checks() {
+        return Collections.unmodifiableList(checks);
+    }
+
+    /**
+     * Returns the statistics of the check with the given name or null if the
+     * check did not run, e.g. because it was suppressed.
+     *
+     * @param name name of the clause or one of the constants of this class.
+     * @return statistics of the check or null.
+     */
+    public Check check(final String name) {
+        for (final Check check : checks) {
+            if (check.name.equals(name))
+                return check;
+        }
+        return null;
+    }
+
+    void add(final String name,
+             final long comparisons,
+             final long equalsCalls,
+             final long nanos,
+             final double coverage) {
+        checks.add(new Check(name, comparisons, equalsCalls, nanos, coverage));
+    }
+
+    void finish(final long totalNanos) {
+        this.totalNanos = totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(format(
+                "%d lesser, %d equal, %d greater and %d additional instances verified in %dus, created in %dus",
+                lesserInstances, equalInstances, greaterInstances, additionalInstances,
+                totalNanos / 1000, creationNanos / 1000
+        ));
+        for (final Check check : checks) {
+            builder.append(System.lineSeparator()).append(check);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Statistics of a single check.
+     */
+    public static final class Check {
+        private final String name;
+        private final long comparisons;
+        private final long equalsCalls;
+        private final long nanos;
+        private final double coverage;
+
+        private Check(final String name,
+                      final long comparisons,
+                      final long equalsCalls,
+                      final long nanos,
+                      final double coverage) {
+            this.name = name;
+            this.comparisons = comparisons;
+            this.equalsCalls = equalsCalls;
+            this.nanos = nanos;
+            this.coverage = coverage;
+        }
+
+        /**
+         * @return name of the clause or one of the constants of {@link VerificationStatistics}.
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return number of the comparisons made by the check.
+         */
+        public long comparisons() {
+            return comparisons;
+        }
+
+        /**
+         * @return number of the equals calls made by the check.
+         */
+        public long equalsCalls() {
+            return equalsCalls;
+        }
+
+        /**
+         * @return wall time of the check in nanoseconds.
+         */
+        public long nanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the verified fraction of the instances, pairs or triples of
+         * the check, which is below 1 only if the check was sampled to fit
+         * into the time budget.
+         *
+         * @return verified fraction in the range [0, 1].
+         */
+        public double coverage() {
+            return coverage;
+        }
+
+        @Override
+        public String toString() {
+            final String check = format("%s: %d comparisons, %d equals calls in %dus",
+                    name, comparisons, equalsCalls, nanos / 1000);
+            return coverage < 1
+                    ? check + format(", %d%% covered", (long) Math.floor(coverage * 100))
+                    : check;
+        }
+    }
+}
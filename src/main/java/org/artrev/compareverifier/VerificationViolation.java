@@ -0,0 +1,90 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import static java.lang.String.format;
+
+/**
+ * A single violation of the contract stored in a {@link VerificationReport}.
+ * <p>
+ * The message is rendered only when it is requested, the {@code toString()}
+ * of every instance is truncated to {@link #MAX_INSTANCE_LENGTH} characters,
+ * so instances with large string representations do not dominate the report.
+ * The truncation bounds only the length of the message, the whole
+ * {@code toString()} of every instance is still built on every rendering,
+ * so the violations of instances with huge string representations should
+ * be rendered sparingly.
+ *
+ * @see VerificationReport
+ */
+public final class VerificationViolation {
+    /**
+     * Maximal length of a rendered instance.
+     */
+    public static final int MAX_INSTANCE_LENGTH = 120;
+
+    private final VerificationClause clause;
+    // orders the violations of the clause, lower keys are found first
+    final long key;
+    private final String pattern;
+    private final Object[] instances;
+
+    VerificationViolation(final VerificationClause clause,
+                          final long key,
+                          final String pattern,
+                          final Object[] instances) {
+        this.clause = clause;
+        this.key = key;
+        this.pattern = pattern;
+        this.instances = instances;
+    }
+
+    /**
+     * Returns the violated clause.
+     *
+     * @return violated clause.
+     */
+    public VerificationClause clause() {
+        return clause;
+    }
+
+    /**
+     * Renders the message describing the violation, the same as the message
+     * of the {@link AssertionError} thrown by {@code verify()} except for the
+     * truncated instances.
+     *
+     * @return message describing the violation.
+     */
+    public String message() {
+        final Object[] rendered = new Object[instances.length];
+        for (int i = 0; i < instances.length; i++) {
+            rendered[i] = truncate(String.valueOf(instances[i]));
+        }
+        return format(pattern, rendered);
+    }
+
+    @Override
+    public String toString() {
+        return clause + ": " + message();
+    }
+
+    private static String truncate(final String instance) {
+        if (instance.length() <= MAX_INSTANCE_LENGTH)
+            return instance;
+
+        return instance.substring(0, MAX_INSTANCE_LENGTH) + "...";
+    }
+}
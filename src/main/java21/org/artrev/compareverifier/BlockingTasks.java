@@ -0,0 +1,57 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs tasks that may block, e.g. because the compared instances read an
+ * I/O-backed fixture, each on its own thread.
+ * <p>
+ * This is the Java 21 variant packaged in {@code META-INF/versions/21} of
+ * the multi-release JAR. Every task runs on a virtual thread, which releases
+ * its carrier thread while it is blocked, so thousands of blocking tasks do
+ * not exhaust the platform threads.
+ */
+final class BlockingTasks {
+    private BlockingTasks() {
+        throw new IllegalStateException("BlockingTasks should not be instantiated!");
+    }
+
+    /**
+     * Runs every task on its own thread and waits until all of them finish.
+     * The tasks are expected to handle their own exceptions.
+     *
+     * @param name  prefix of the names of the threads.
+     * @param tasks tasks to run at once.
+     * @throws InterruptedException if interrupted while waiting for the tasks.
+     */
+    static void runAll(final String name,
+                       final List<? extends Runnable> tasks) throws InterruptedException {
+        // closing the executor waits for all of the tasks, if it is
+        // interrupted meanwhile the tasks are interrupted as well
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(name + "-", 0).factory())) {
+            for (final Runnable task : tasks) {
+                executor.execute(task);
+            }
+        }
+        if (Thread.interrupted())
+            throw new InterruptedException();
+    }
+}
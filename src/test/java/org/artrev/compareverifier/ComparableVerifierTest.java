@@ -21,11 +21,23 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
+import java.io.File;
 import java.math.BigDecimal;
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(Enclosed.class)
 public class ComparableVerifierTest {
@@ -366,6 +378,87 @@ public class ComparableVerifierTest {
         }
     }
 
+    public static class ConsistentWithEquals {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_detect_lesser_instances_that_compare_as_equal_but_are_not_equal() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new InconsistentWithEquals(0, 0),
+                            new InconsistentWithEquals(0, 1)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new Correct(42),
+                            new Correct(42)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(
+                            new Correct(100)
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("CompareTo is not consistent with equals!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .verify();
+        }
+
+        @Test
+        public void should_detect_equal_instances_in_different_groups() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Versioned(0, 1)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new Correct(42),
+                            new Correct(42)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(
+                            new Versioned(0, 2)
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("CompareTo is not consistent with equals!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .verify();
+        }
+
+        @Test
+        public void should_call_equals_only_for_instances_with_the_same_hash_code() {
+            // given:
+            final Counting[] lesserInstances = new Counting[500];
+            final Counting[] greaterInstances = new Counting[500];
+            for (int i = 0; i < 500; i++) {
+                lesserInstances[i] = new Counting(i);
+                greaterInstances[i] = new Counting(1000 + i);
+            }
+
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(lesserInstances),
+                            VerificationInstancesCreators.from(new Counting(700), new Counting(700), new Counting(700)),
+                            VerificationInstancesCreators.from(greaterInstances)
+                    )
+                    .verifyWithStatistics();
+
+            // then:
+            assertEquals(3, statistics.check("CONSISTENT_WITH_EQUALS").equalsCalls());
+        }
+    }
+
     public static class SuppressEqualsToNullReturnsFalse {
         @Rule
         public ExpectedException expectedException = ExpectedException.none();
@@ -732,6 +825,63 @@ public class ComparableVerifierTest {
                     .verify();
         }
 
+        @Test
+        public void should_fail_for_instances_not_transitive_within_a_group() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Cyclic(0),
+                            new Cyclic(1),
+                            new Cyclic(2)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new Correct(42),
+                            new Correct(42)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(
+                            new Correct(100)
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.containsString("are not transitive!"));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_equal_instances_that_compare_differently_to_other_instance() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Approximate(0),
+                            new Approximate(1),
+                            new Approximate(2)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new Correct(42),
+                            new Correct(42)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(
+                            new Correct(100)
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instances Approximate{ value = 0 }, Approximate{ value = 1 }, compare as equal but differently to Approximate{ value = 2 }!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .verify();
+        }
+
         @Test
         public void should_fail_when_Equal_instances_do_not_throw_exceptions_symmetrically() {
             // given:
@@ -757,5 +907,972 @@ public class ComparableVerifierTest {
                     .verify();
         }
     }
-}
 
+    public static class Parallel {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_throw_If_Pool_is_Null() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("ForkJoinPool cannot be null!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .parallel(null);
+        }
+
+        @Test
+        public void should_pass_for_all_instances() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(correct(0, 40));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(same(42, 40));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(correct(100, 40));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .parallel(new ForkJoinPool(4))
+                    .verify();
+        }
+
+        @Test
+        public void should_report_the_same_violation_as_sequential_verification() {
+            // given:
+            final Correct[] lesserInstances = correct(0, 40);
+            lesserInstances[17] = new Correct(43);
+            lesserInstances[31] = new Correct(44);
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(lesserInstances);
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(same(42, 40));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(correct(100, 40));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(
+                    "Instances Correct{ value = 43 }, Correct{ value = 42 }, Correct{ value = 100 }, are not transitive!"
+            );
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .parallel(new ForkJoinPool(4))
+                    .verify();
+        }
+
+        private static Correct[] correct(final int from, final int count) {
+            final Correct[] instances = new Correct[count];
+            for (int i = 0; i < count; i++) {
+                instances[i] = new Correct(from + i);
+            }
+            return instances;
+        }
+
+        private static Correct[] same(final int value, final int count) {
+            final Correct[] instances = new Correct[count];
+            for (int i = 0; i < count; i++) {
+                instances[i] = new Correct(value);
+            }
+            return instances;
+        }
+    }
+
+    public static class AssertAllocationFree {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_pass_for_not_allocating_compareTo() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0), new Correct(1));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100), new Correct(101));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .assertAllocationFree();
+        }
+
+        @Test
+        public void should_fail_for_allocating_compareTo() {
+            // given:
+            final VerificationInstancesCreator<Formatting> lesser =
+                    VerificationInstancesCreators.from(new Formatting(0), new Formatting(1));
+            final VerificationInstancesCreator<Formatting> equal =
+                    VerificationInstancesCreators.from(new Formatting(42), new Formatting(42));
+            final VerificationInstancesCreator<Formatting> greater =
+                    VerificationInstancesCreators.from(new Formatting(100), new Formatting(101));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.containsString(
+                    "bytes when comparing Formatting{ value = 0 } to Formatting{ value = 0 }!"
+            ));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .assertAllocationFree();
+        }
+    }
+
+    public static class MaxCompareLatency {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_pass_for_compareTo_within_the_budget() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0), new Correct(1));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100), new Correct(101));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .maxCompareLatency(99, 1, TimeUnit.MILLISECONDS)
+                    .verify();
+        }
+
+        @Test
+        public void should_throw_if_unit_is_null() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("TimeUnit cannot be null!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .maxCompareLatency(99, 1, null);
+        }
+    }
+
+    public static class StressConcurrently {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_pass_for_immutable_instances() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0), new Correct(1));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100), new Correct(101));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .stressConcurrently(4);
+        }
+
+        @Test
+        public void should_fail_for_racy_lazy_initialization() {
+            // given:
+            final VerificationInstancesCreator<LazyNormalized> lesser = fresh(1, 2);
+            final VerificationInstancesCreator<LazyNormalized> equal = fresh(42, 42);
+            final VerificationInstancesCreator<LazyNormalized> greater = fresh(100, 101);
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.allOf(
+                    CoreMatchers.startsWith("CompareTo of LazyNormalized{ value = "),
+                    CoreMatchers.containsString(" of 8 but returned "),
+                    CoreMatchers.endsWith(" on a single thread!")
+            ));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .stressConcurrently(8);
+        }
+
+        @Test
+        public void should_fail_for_equals_throwing_under_concurrency() {
+            // given:
+            final VerificationInstancesCreator<BufferedEquals> lesser = buffered(1, 2);
+            final VerificationInstancesCreator<BufferedEquals> equal = buffered(42, 42);
+            final VerificationInstancesCreator<BufferedEquals> greater = buffered(100, 101);
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.allOf(
+                    CoreMatchers.startsWith("Equals of BufferedEquals{ value = "),
+                    CoreMatchers.containsString(" threw an exception on thread "),
+                    CoreMatchers.containsString(" of 8 but returned "),
+                    CoreMatchers.endsWith(" on a single thread!")
+            ));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .stressConcurrently(8);
+        }
+
+        @Test
+        public void should_fail_for_single_thread() {
+            // given:
+            final VerificationInstancesCreator<Correct> instances =
+                    VerificationInstancesCreators.from(new Correct(0), new Correct(0));
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Stress needs at least two threads!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(instances, instances, instances)
+                    .stressConcurrently(1);
+        }
+
+        // the lazily normalized values are computed only on the first use
+        private static VerificationInstancesCreator<LazyNormalized> fresh(final int... values) {
+            return new VerificationInstancesCreator<LazyNormalized>() {
+                @Override
+                public List<LazyNormalized> create() {
+                    final List<LazyNormalized> instances = new ArrayList<LazyNormalized>();
+                    for (final int value : values) {
+                        instances.add(new LazyNormalized(value));
+                    }
+                    return instances;
+                }
+            };
+        }
+
+        // the buffers are allocated only on the first use
+        private static VerificationInstancesCreator<BufferedEquals> buffered(final int... values) {
+            return new VerificationInstancesCreator<BufferedEquals>() {
+                @Override
+                public List<BufferedEquals> create() {
+                    final List<BufferedEquals> instances = new ArrayList<BufferedEquals>();
+                    for (final int value : values) {
+                        instances.add(new BufferedEquals(value));
+                    }
+                    return instances;
+                }
+            };
+        }
+    }
+
+    public static class WithAdditionalInstances {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        @SuppressWarnings("ConstantConditions")
+        public void should_throw_If_Additional_Creator_is_Null() {
+            // given:
+            final VerificationInstancesCreator<Correct> additional = null;
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("VerificationInstancesCreator (additional) cannot be null!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    )
+                    .withAdditionalInstances(additional);
+        }
+
+        @Test
+        public void should_pass_for_additional_instances_in_any_place_of_the_order() {
+            // given:
+            final VerificationInstancesCreator<Correct> additional =
+                    VerificationInstancesCreators.from(
+                            new Correct(-7),
+                            new Correct(42),
+                            new Correct(50),
+                            new Correct(1000)
+                    );
+
+            // when:
+            ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    )
+                    .withAdditionalInstances(additional)
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_additional_instances_that_are_not_transitive() {
+            // given:
+            final VerificationInstancesCreator<Correct> additional =
+                    VerificationInstancesCreators.from(
+                            new Cyclic(2)
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.containsString("are not transitive!"));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Cyclic(0)),
+                            VerificationInstancesCreators.from(new Cyclic(1), new Cyclic(1)),
+                            VerificationInstancesCreators.from(new Cyclic(5))
+                    )
+                    .withAdditionalInstances(additional)
+                    .verify();
+        }
+
+        @Test
+        public void should_count_additional_instances_in_statistics() {
+            // given:
+            final VerificationInstancesCreator<Correct> additional =
+                    VerificationInstancesCreators.from(
+                            new Correct(7),
+                            new Correct(8)
+                    );
+
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    )
+                    .withAdditionalInstances(additional)
+                    .verifyWithStatistics();
+
+            // then:
+            assertEquals(2, statistics.additionalInstances());
+        }
+    }
+
+    public static class SpillComparisonsTo {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Rule
+        public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+        @Test
+        @SuppressWarnings("ConstantConditions")
+        public void should_throw_If_Directory_is_Null() {
+            // given:
+            final File directory = null;
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Spill directory cannot be null!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    )
+                    .spillComparisonsTo(directory, 0);
+        }
+
+        @Test
+        public void should_pass_for_correct_instances_spilled_to_a_file() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(range(0, 600));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(1000), new Correct(1000));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(range(2000, 2600));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .spillComparisonsTo(temporaryFolder.getRoot(), 0)
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_instances_not_transitive_spilled_to_a_file() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Cyclic(0),
+                            new Cyclic(1),
+                            new Cyclic(2)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new Correct(42),
+                            new Correct(42)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(
+                            new Correct(100)
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.containsString("are not transitive!"));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .spillComparisonsTo(temporaryFolder.getRoot(), 0)
+                    .verify();
+        }
+
+        private static Correct[] range(final int from, final int to) {
+            final Correct[] instances = new Correct[to - from];
+            for (int i = 0; i < instances.length; i++) {
+                instances[i] = new Correct(from + i);
+            }
+            return instances;
+        }
+    }
+
+    public static class CompressEquivalenceClasses {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_pass_for_duplicated_instances() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(duplicated(0, 10, 20));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(duplicated(42, 1, 50));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(duplicated(100, 10, 20));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .compressEquivalenceClasses(true)
+                    .verify();
+        }
+
+        @Test
+        public void should_pass_for_duplicated_instances_in_parallel() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(duplicated(0, 10, 20));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(duplicated(42, 1, 50));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(duplicated(100, 10, 20));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .compressEquivalenceClasses(true)
+                    .parallel(new ForkJoinPool(4))
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_equal_instances_that_compare_differently_to_other_instance() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Approximate(0),
+                            new Approximate(1),
+                            new Approximate(2)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(duplicated(42, 1, 10));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(duplicated(100, 2, 5));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instances Approximate{ value = 0 }, Approximate{ value = 1 }, compare as equal but differently to Approximate{ value = 2 }!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .compressEquivalenceClasses(true)
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_representatives_not_transitive_within_a_group() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Cyclic(0),
+                            new Cyclic(1),
+                            new Cyclic(1),
+                            new Cyclic(2)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(duplicated(42, 1, 10));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(duplicated(100, 2, 5));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.containsString("are not transitive!"));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .compressEquivalenceClasses(true)
+                    .verify();
+        }
+
+        // every value is repeated the given number of times
+        private static Correct[] duplicated(final int from, final int values, final int copies) {
+            final Correct[] instances = new Correct[values * copies];
+            for (int i = 0; i < instances.length; i++) {
+                instances[i] = new Correct(from + i / copies);
+            }
+            return instances;
+        }
+    }
+
+    public static class CacheResultsIn {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Rule
+        public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+        private final VerificationInstancesCreator<Counting> lesser =
+                VerificationInstancesCreators.from(new Counting(0), new Counting(1));
+        private final VerificationInstancesCreator<Counting> equal =
+                VerificationInstancesCreators.from(new Counting(42), new Counting(42));
+        private final VerificationInstancesCreator<Counting> greater =
+                VerificationInstancesCreators.from(new Counting(100), new Counting(101));
+
+        @Test
+        public void should_throw_if_directory_is_null() {
+            // given:
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Cache directory cannot be null!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .cacheResultsIn(null);
+        }
+
+        @Test
+        public void should_skip_the_verification_that_already_passed() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .cacheResultsIn(directory)
+                    .verify();
+            final long comparisons = Counting.COMPARISONS.get();
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // then:
+            assertEquals(comparisons, Counting.COMPARISONS.get());
+            assertEquals(1, directory.list().length);
+        }
+
+        @Test
+        public void should_run_the_verification_of_other_instances() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, VerificationInstancesCreators.from(new Counting(100)))
+                    .cacheResultsIn(directory)
+                    .verify();
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // then:
+            assertEquals(3, directory.list().length);
+        }
+
+        @Test
+        public void should_throw_if_fingerprint_is_null() {
+            // given:
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Fingerprint cannot be null!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .cacheResultsIn(temporaryFolder.getRoot(), null);
+        }
+
+        @Test
+        public void should_not_share_the_key_of_instances_that_differ_only_in_the_fingerprint() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+            final Function<Labelled, String> fingerprint = new Function<Labelled, String>() {
+                @Override
+                public String apply(final Labelled instance) {
+                    return instance.label + instance.value;
+                }
+            };
+
+            // when:
+            ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Labelled("a", 0)),
+                            VerificationInstancesCreators.from(new Labelled("b", 42), new Labelled("b", 42)),
+                            VerificationInstancesCreators.from(new Labelled("c", 100))
+                    )
+                    .cacheResultsIn(directory, fingerprint)
+                    .verify();
+            ComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Labelled("a", 0)),
+                            VerificationInstancesCreators.from(new Labelled("b", 50), new Labelled("b", 50)),
+                            VerificationInstancesCreators.from(new Labelled("c", 100))
+                    )
+                    .cacheResultsIn(directory, fingerprint)
+                    .verify();
+
+            // then:
+            assertEquals(2, directory.list().length);
+        }
+
+        @Test
+        public void should_not_share_the_key_of_instances_built_by_other_creators() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+
+            // when:
+            // the instances of both verifications have the same string representations
+            ComparableVerifier
+                    .forInstances(
+                            new VerificationInstancesCreator<Labelled>() {
+                                @Override
+                                public List<Labelled> create() {
+                                    return Collections.singletonList(new Labelled("a", 0));
+                                }
+                            },
+                            VerificationInstancesCreators.from(new Labelled("b", 42), new Labelled("b", 42)),
+                            VerificationInstancesCreators.from(new Labelled("c", 100))
+                    )
+                    .cacheResultsIn(directory)
+                    .verify();
+            ComparableVerifier
+                    .forInstances(
+                            new VerificationInstancesCreator<Labelled>() {
+                                @Override
+                                public List<Labelled> create() {
+                                    return Collections.singletonList(new Labelled("a", 10));
+                                }
+                            },
+                            VerificationInstancesCreators.from(new Labelled("b", 42), new Labelled("b", 42)),
+                            VerificationInstancesCreators.from(new Labelled("c", 100))
+                    )
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // then:
+            assertEquals(2, directory.list().length);
+        }
+
+        @Test
+        public void should_not_record_verification_with_lambda_creator() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+            final VerificationInstancesCreator<Labelled> lesser = () -> Collections.singletonList(new Labelled("a", 0));
+
+            // when:
+            ComparableVerifier
+                    .forInstances(
+                            lesser,
+                            VerificationInstancesCreators.from(new Labelled("b", 42), new Labelled("b", 42)),
+                            VerificationInstancesCreators.from(new Labelled("c", 100))
+                    )
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // then:
+            assertEquals(0, directory.list().length);
+        }
+
+        @Test
+        public void should_run_the_verification_again_on_another_jvm() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // when:
+            final String version = System.getProperty("java.vm.version");
+            System.setProperty("java.vm.version", version + "-other");
+            try {
+                ComparableVerifier
+                        .forInstances(lesser, equal, greater)
+                        .cacheResultsIn(directory)
+                        .verify();
+            } finally {
+                System.setProperty("java.vm.version", version);
+            }
+
+            // then:
+            assertEquals(2, directory.list().length);
+        }
+
+        @Test
+        public void should_not_record_budgeted_verification() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .withinBudget(1, TimeUnit.SECONDS)
+                    .cacheResultsIn(directory)
+                    .verify();
+            final long comparisons = Counting.COMPARISONS.get();
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // then:
+            assertTrue(Counting.COMPARISONS.get() > comparisons);
+            assertEquals(1, directory.list().length);
+        }
+
+        @Test
+        public void should_not_record_failed_verification() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Cyclic(0), new Cyclic(1), new Cyclic(2));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            // when:
+            try {
+                ComparableVerifier
+                        .forInstances(lesser, equal, greater)
+                        .cacheResultsIn(directory)
+                        .verify();
+            } catch (final AssertionError expected) {
+                // the order of the cyclic instances is broken
+            }
+
+            // then:
+            assertEquals(0, directory.list().length);
+        }
+
+        @Test
+        public void should_not_record_verification_with_latency_budget() {
+            // given:
+            final File directory = temporaryFolder.getRoot();
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .maxCompareLatency(100, 1, TimeUnit.SECONDS)
+                    .cacheResultsIn(directory)
+                    .verify();
+
+            // then:
+            assertEquals(0, directory.list().length);
+        }
+    }
+
+    public static class VerifyWithStatistics {
+        private final VerificationInstancesCreator<Counting> lesser =
+                VerificationInstancesCreators.from(new Counting(0), new Counting(1));
+        private final VerificationInstancesCreator<Counting> equal =
+                VerificationInstancesCreators.from(new Counting(42), new Counting(42), new Counting(42));
+        private final VerificationInstancesCreator<Counting> greater =
+                VerificationInstancesCreators.from(new Counting(100));
+
+        @Test
+        public void should_count_all_of_the_comparisons_and_equals_calls() {
+            // given:
+            final long comparisons = Counting.COMPARISONS.get();
+
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .verifyWithStatistics();
+
+            // then:
+            assertEquals(Counting.COMPARISONS.get() - comparisons, statistics.comparisons());
+            // the pairs of the equal hash codes and every instance compared to null
+            assertEquals(3 + 6, statistics.equalsCalls());
+            assertEquals(2, statistics.lesserInstances());
+            assertEquals(3, statistics.equalInstances());
+            assertEquals(1, statistics.greaterInstances());
+        }
+
+        @Test
+        public void should_record_every_check_in_order() {
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .verifyWithStatistics();
+
+            // then:
+            final List<String> names = new ArrayList<String>();
+            for (final VerificationStatistics.Check check : statistics.checks()) {
+                names.add(check.name());
+            }
+            assertEquals(Arrays.asList(
+                    "CONSISTENT_WITH_EQUALS",
+                    "EQUALS_TO_NULL_RETURNS_FALSE",
+                    "EXCEPTION_ON_COMPARE_TO_NULL",
+                    "ANTISYMMETRY",
+                    "TRANSITIVITY",
+                    "SUBSTITUTABILITY",
+                    "TOTAL_ORDER"
+            ), names);
+            // every pair is compared once, the null comparisons on top of it
+            assertEquals(36 + 6, statistics.comparisons());
+            assertEquals(6, statistics.check("EXCEPTION_ON_COMPARE_TO_NULL").comparisons());
+        }
+
+        @Test
+        public void should_not_record_suppressed_check() {
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .verifyWithStatistics();
+
+            // then:
+            assertNull(statistics.check("CONSISTENT_WITH_EQUALS"));
+            assertEquals(6, statistics.equalsCalls());
+        }
+
+        @Test
+        public void should_record_fill_of_parallel_verification() {
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .parallel(new ForkJoinPool(2))
+                    .verifyWithStatistics();
+
+            // then:
+            // the pairs sorted by the consistent with equals check are not compared again
+            assertEquals(
+                    36 - statistics.check("CONSISTENT_WITH_EQUALS").comparisons(),
+                    statistics.check(VerificationStatistics.SIGN_MATRIX_FILL).comparisons()
+            );
+        }
+    }
+
+    public static class WithinBudget {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        private final VerificationInstancesCreator<Correct> lesser =
+                VerificationInstancesCreators.from(correct(0, 300));
+        private final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(420), new Correct(420));
+        private final VerificationInstancesCreator<Correct> greater =
+                VerificationInstancesCreators.from(correct(1000, 300));
+
+        @Test
+        public void should_throw_if_budget_is_not_positive() {
+            // given:
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Time budget must be positive!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .withinBudget(0, TimeUnit.SECONDS);
+        }
+
+        @Test
+        public void should_cover_all_checks_within_generous_budget() {
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .withinBudget(1, TimeUnit.HOURS)
+                    .verifyWithStatistics();
+
+            // then:
+            for (final VerificationStatistics.Check check : statistics.checks()) {
+                assertEquals(check.name(), 1, check.coverage(), 0);
+            }
+        }
+
+        @Test
+        public void should_sample_expensive_checks_when_budget_runs_short() {
+            // when:
+            final VerificationStatistics statistics = ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .withinBudget(1, TimeUnit.NANOSECONDS)
+                    .verifyWithStatistics();
+
+            // then:
+            assertEquals(1, statistics.check("ANTISYMMETRY").coverage(), 0);
+            final double coverage = statistics.check("TOTAL_ORDER").coverage();
+            assertTrue(coverage > 0 && coverage < 1);
+            assertTrue(statistics.toString().contains("% covered"));
+        }
+
+        @Test
+        public void should_complete_cheap_checks_when_budget_runs_short() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new CompareToThrows(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Comparing CompareToThrows{ value = 0 } to Correct{ value = 42 } threw an exception but Correct{ value = 42 } to CompareToThrows{ value = 0 } did not!");
+
+            // when:
+            ComparableVerifier
+                    .forInstances(lesser, equal, greater)
+                    .withinBudget(1, TimeUnit.NANOSECONDS)
+                    .verify();
+        }
+
+        private static Correct[] correct(final int from, final int count) {
+            final Correct[] instances = new Correct[count];
+            for (int i = 0; i < count; i++) {
+                instances[i] = new Correct(from + i);
+            }
+            return instances;
+        }
+    }
+}
@@ -0,0 +1,767 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.Correct;
+import org.artrev.compareverifier.implementations.InconsistentWithEquals;
+import org.artrev.compareverifier.implementations.Versioned;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Enclosed.class)
+public class ComparatorVerifierTest {
+    private static final Comparator<Correct> BY_VALUE = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            return Integer.compare(first.value, second.value);
+        }
+    };
+
+    // a common mistake, the subtraction overflows for values far apart
+    private static final Comparator<Correct> BY_VALUE_SUBTRACTION = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            return first.value - second.value;
+        }
+    };
+
+    // the created keys escape, so the allocations cannot be eliminated
+    private static volatile Object lastKeys;
+    private static final Comparator<Correct> BY_VALUE_ALLOCATING = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            final int[] keys = {first.value, second.value};
+            lastKeys = keys;
+            return Integer.compare(keys[0], keys[1]);
+        }
+    };
+
+    // spins for 100 microseconds on every comparison
+    private static final Comparator<Correct> BY_VALUE_SLOW = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            final long start = System.nanoTime();
+            while (System.nanoTime() - start < 100000) {
+                Thread.yield();
+            }
+            return Integer.compare(first.value, second.value);
+        }
+    };
+
+    // never returns 0, so no instance compares as equal to itself
+    private static final Comparator<Correct> BY_VALUE_NEVER_EQUAL = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            return first.value <= second.value ? -1 : 1;
+        }
+    };
+
+    // cannot compare 5 and 6 in either direction
+    private static final Comparator<Correct> THROWING_BETWEEN_FIVE_AND_SIX = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            if (first.value == 5 && second.value == 6 || first.value == 6 && second.value == 5)
+                throw new IllegalStateException("Cannot compare 5 and 6!");
+            return Integer.compare(first.value, second.value);
+        }
+    };
+
+    // moves the value towards zero by one
+    private static final Shrinker<Correct> DECREMENTING = new Shrinker<Correct>() {
+        @Override
+        public List<Correct> shrink(final Correct instance) {
+            if (instance.value == 0)
+                return Collections.emptyList();
+
+            return Arrays.asList(new Correct(instance.value - 1));
+        }
+    };
+
+    // moves the value towards zero
+    private static final Shrinker<Correct> HALVING = new Shrinker<Correct>() {
+        @Override
+        public List<Correct> shrink(final Correct instance) {
+            if (instance.value == 0)
+                return Collections.emptyList();
+
+            return Arrays.asList(new Correct(0), new Correct(instance.value / 2));
+        }
+    };
+
+    public static class ForInstance {
+        @Test
+        public void should_create_non_Null_Verifier_instance() {
+            // given:
+            final VerificationInstancesCreator<Correct> less =
+                    VerificationInstancesCreators.from(new Correct(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            // when:
+            final ComparatorVerifier<Correct> verifier =
+                    ComparatorVerifier.forInstances(BY_VALUE, less, equal, greater);
+
+            // then:
+            assertNotNull(verifier);
+        }
+    }
+
+    public static class ArgumentVerification {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_throw_If_Comparator_is_Null() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Comparator cannot be null!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(null, lesser, equal, greater)
+                    .verify();
+        }
+
+        @Test
+        public void should_throw_If_Lesser_Creator_is_Null() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser = null;
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("VerificationInstancesCreator (lesser) cannot be null!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .verify();
+        }
+    }
+
+    public static class SuppressConsistentWithEquals {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_allow_inconsistent_instances() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new InconsistentWithEquals(42, 0),
+                            new InconsistentWithEquals(42, 1)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .verify();
+        }
+
+        @Test
+        public void should_NOT_allow_inconsistent_instances() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new InconsistentWithEquals(42, 0),
+                            new InconsistentWithEquals(42, 1)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Comparator is not consistent with equals!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .verify();
+        }
+    }
+
+    public static class Verify {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_pass_for_all_instances() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Correct(Integer.MIN_VALUE),
+                            new Correct(0),
+                            new Correct(1)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new Correct(42),
+                            new Correct(42)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(
+                            new Correct(100),
+                            new Correct(Integer.MAX_VALUE)
+                    );
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .parallel(new ForkJoinPool(2))
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_overflowing_comparator() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(
+                            new Correct(Integer.MIN_VALUE),
+                            new Correct(0)
+                    );
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(
+                            new Correct(42),
+                            new Correct(42)
+                    );
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(
+                            new Correct(Integer.MAX_VALUE)
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instances Correct{ value = -2147483648 }, Correct{ value = 42 }, Correct{ value = 2147483647 }, are not transitive!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE_SUBTRACTION, lesser, equal, greater)
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_comparison_throwing_both_ways_within_a_group() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(5), new Correct(6));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Comparing Correct{ value = 5 } to Correct{ value = 6 } threw an exception "
+                    + "and so did Correct{ value = 6 } to Correct{ value = 5 }!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(THROWING_BETWEEN_FIVE_AND_SIX, lesser, equal, greater)
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_comparison_throwing_both_ways_between_groups() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(5));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(6), new Correct(6));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Comparing Correct{ value = 6 } to Correct{ value = 5 } threw an exception "
+                    + "and so did Correct{ value = 5 } to Correct{ value = 6 }!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(THROWING_BETWEEN_FIVE_AND_SIX, lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .verify();
+        }
+    }
+
+    public static class AssertAllocationFree {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        private final VerificationInstancesCreator<Correct> lesser =
+                VerificationInstancesCreators.from(
+                        new Correct(0),
+                        new Correct(1)
+                );
+        private final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(
+                        new Correct(42),
+                        new Correct(42)
+                );
+        private final VerificationInstancesCreator<Correct> greater =
+                VerificationInstancesCreators.from(
+                        new Correct(100),
+                        new Correct(101)
+                );
+
+        @Test
+        public void should_pass_for_not_allocating_comparator() {
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .assertAllocationFree();
+        }
+
+        @Test
+        public void should_fail_for_allocating_comparator() {
+            // given:
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(containsString("Comparator allocates"));
+            expectedException.expectMessage(containsString("bytes when comparing Correct{ value = 0 } to Correct{ value = 0 }!"));
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE_ALLOCATING, lesser, equal, greater)
+                    .assertAllocationFree();
+        }
+
+        @Test
+        public void should_pass_for_allocation_within_the_limit() {
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE_ALLOCATING, lesser, equal, greater)
+                    .assertAllocationFree(1024);
+        }
+
+        @Test
+        public void should_throw_if_allowed_allocation_is_negative() {
+            // given:
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Allowed allocation cannot be negative!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .assertAllocationFree(-1);
+        }
+    }
+
+    public static class MaxCompareLatency {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        private final VerificationInstancesCreator<Correct> lesser =
+                VerificationInstancesCreators.from(new Correct(0));
+        private final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+        private final VerificationInstancesCreator<Correct> greater =
+                VerificationInstancesCreators.from(new Correct(100));
+
+        @Test
+        public void should_pass_for_comparator_within_the_budget() {
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .maxCompareLatency(99, 1, TimeUnit.MILLISECONDS)
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_comparator_over_the_budget() {
+            // given:
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(containsString("Comparator latency at the 50 percentile is"));
+            expectedException.expectMessage(containsString("but the budget is 10000ns"));
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE_SLOW, lesser, equal, greater)
+                    .maxCompareLatency(50, 10, TimeUnit.MICROSECONDS)
+                    .verify();
+        }
+
+        @Test
+        public void should_throw_if_percentile_is_out_of_range() {
+            // given:
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Percentile must be greater than 0 and at most 100!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .maxCompareLatency(100.5, 1, TimeUnit.MILLISECONDS);
+        }
+
+        @Test
+        public void should_throw_if_budget_is_not_positive() {
+            // given:
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Latency budget must be positive!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .maxCompareLatency(99, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static class Shrinking {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        private final VerificationInstancesCreator<Correct> lesser =
+                VerificationInstancesCreators.from(new Correct(-2000000000));
+        private final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(0), new Correct(0));
+        private final VerificationInstancesCreator<Correct> greater =
+                VerificationInstancesCreators.from(new Correct(1000000000), new Correct(2000000000));
+
+        @Test
+        public void should_report_minimal_counterexample() {
+            // given:
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(
+                    "Instances do not implement a total order! Minimal counterexample: Instance Correct{ value = 0 } does not compare as equal to itself!"
+            );
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE_NEVER_EQUAL, lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .verify();
+        }
+
+        @Test
+        public void should_shrink_the_instances_of_the_counterexample() {
+            // given:
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(
+                    "Instances Correct{ value = -2000000000 }, Correct{ value = 0 }, Correct{ value = 1000000000 }, are not transitive! Minimal counterexample: "
+            );
+            expectedException.expectMessage(containsString("Correct{ value = 250000000 }"));
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE_SUBTRACTION, lesser, equal, greater)
+                    .shrinkWith(HALVING)
+                    .verify();
+        }
+
+        // cannot compare two different values from 100 up in either direction
+        private final Comparator<Correct> throwingAboveHundred = new Comparator<Correct>() {
+            @Override
+            public int compare(final Correct first, final Correct second) {
+                if (first.value >= 100 && second.value >= 100 && first.value != second.value)
+                    throw new IllegalStateException("Cannot compare large values!");
+                return Integer.compare(first.value, second.value);
+            }
+        };
+
+        @Test
+        public void should_shrink_a_pair_that_throws_both_ways() {
+            // given:
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(containsString(
+                    "Minimal counterexample: Comparing Correct{ value = 100 } to Correct{ value = 101 } threw an exception "
+                            + "and so did Correct{ value = 101 } to Correct{ value = 100 }!"
+            ));
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(
+                            throwingAboveHundred,
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100), new Correct(110))
+                    )
+                    .shrinkWith(DECREMENTING)
+                    .verify();
+        }
+
+        @Test
+        public void should_compare_every_pair_at_most_once() {
+            // given:
+            final Set<String> compared = new HashSet<String>();
+            final List<String> repeated = new ArrayList<String>();
+            final Comparator<Correct> recording = new Comparator<Correct>() {
+                @Override
+                public int compare(final Correct first, final Correct second) {
+                    if (null != first && null != second
+                            && !compared.add(System.identityHashCode(first) + "/" + System.identityHashCode(second)))
+                        repeated.add(first + " to " + second);
+                    return throwingAboveHundred.compare(first, second);
+                }
+            };
+
+            // when:
+            AssertionError failure = null;
+            try {
+                ComparatorVerifier
+                        .forInstances(
+                                recording,
+                                VerificationInstancesCreators.from(new Correct(0)),
+                                VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                                VerificationInstancesCreators.from(new Correct(100), new Correct(110))
+                        )
+                        .shrinkWith(DECREMENTING)
+                        .verify();
+            } catch (final AssertionError exc) {
+                failure = exc;
+            }
+
+            // then:
+            assertNotNull(failure);
+            assertEquals(Collections.<String>emptyList(), repeated);
+        }
+
+        @Test
+        public void should_not_shrink_if_suppressed() {
+            // given:
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(not(containsString("Minimal counterexample")));
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE_SUBTRACTION, lesser, equal, greater)
+                    .shrinkWith(HALVING)
+                    .suppressShrinking(true)
+                    .verify();
+        }
+
+        @Test
+        public void should_throw_if_shrinker_is_null() {
+            // given:
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Shrinker cannot be null!");
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .shrinkWith(null);
+        }
+    }
+
+    public static class CompressEquivalenceClasses {
+        // compares by value, except for the two members of the same class
+        private static final Comparator<Versioned> BROKEN_WITHIN_CLASS = new Comparator<Versioned>() {
+            @Override
+            public int compare(final Versioned first, final Versioned second) {
+                if (first.value == 1 && second.value == 1 && first.version + second.version == 3)
+                    return Integer.compare(first.version, second.version);
+                return Integer.compare(first.value, second.value);
+            }
+        };
+
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_fail_for_members_of_a_class_that_do_not_compare_as_equal() {
+            // given:
+            final VerificationInstancesCreator<Versioned> lesser =
+                    VerificationInstancesCreators.from(
+                            new Versioned(1, 0),
+                            new Versioned(1, 1),
+                            new Versioned(1, 2)
+                    );
+            final VerificationInstancesCreator<Versioned> equal =
+                    VerificationInstancesCreators.from(new Versioned(42, 0), new Versioned(42, 0));
+            final VerificationInstancesCreator<Versioned> greater =
+                    VerificationInstancesCreators.from(new Versioned(100, 0));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(containsString(
+                    "Instances Versioned{ value = 1, version = 0 }, Versioned{ value = 1, version = 1 }, "
+                            + "compare as equal but differently to Versioned{ value = 1, version = 2 }!"
+            ));
+
+            // when:
+            ComparatorVerifier
+                    .forInstances(BROKEN_WITHIN_CLASS, lesser, equal, greater)
+                    .suppressConsistentWithEquals(true)
+                    .compressEquivalenceClasses(true)
+                    .verify();
+        }
+    }
+
+    public static class VerifyAll {
+        private final VerificationInstancesCreator<Correct> lesser =
+                VerificationInstancesCreators.from(new Correct(0), new Correct(1));
+        private final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+        private final VerificationInstancesCreator<Correct> greater =
+                VerificationInstancesCreators.from(new Correct(100), new Correct(101));
+
+        @Test
+        public void should_pass_for_correct_comparator() {
+            // when:
+            final VerificationReport report = ComparatorVerifier
+                    .forInstances(BY_VALUE, lesser, equal, greater)
+                    .verifyAll();
+
+            // then:
+            assertTrue(report.isPassed());
+            assertEquals("No violations found!", report.toString());
+        }
+
+        @Test
+        public void should_collect_violations_of_all_clauses() {
+            // when:
+            final VerificationReport report = ComparatorVerifier
+                    .forInstances(BY_VALUE_NEVER_EQUAL, lesser, equal, greater)
+                    .verifyAll();
+
+            // then:
+            // only the equal instances share a hash code
+            assertEquals(1, report.violationCount(VerificationClause.CONSISTENT_WITH_EQUALS));
+            assertEquals(4, report.violationCount(VerificationClause.ANTISYMMETRY));
+            assertEquals(1, report.violationCount(VerificationClause.TOTAL_ORDER));
+            assertEquals(6, report.violationCount());
+            assertEquals(
+                    "Instance Correct{ value = 0 } does not compare as equal to itself!",
+                    report.violations(VerificationClause.TOTAL_ORDER).get(0).message()
+            );
+        }
+
+        @Test
+        public void should_report_a_comparison_that_throws_within_a_group() {
+            // given:
+            final Comparator<Correct> throwsForFiveToSix = new Comparator<Correct>() {
+                @Override
+                public int compare(final Correct first, final Correct second) {
+                    if (first.value == 5 && second.value == 6)
+                        throw new IllegalStateException("boom");
+                    return Integer.compare(first.value, second.value);
+                }
+            };
+
+            // when:
+            final VerificationReport report = ComparatorVerifier
+                    .forInstances(
+                            throwsForFiveToSix,
+                            VerificationInstancesCreators.from(new Correct(5), new Correct(6)),
+                            equal,
+                            greater
+                    )
+                    .verifyAll();
+
+            // then:
+            final String message = "Comparing Correct{ value = 5 } to Correct{ value = 6 } threw an exception "
+                    + "but Correct{ value = 6 } to Correct{ value = 5 } did not!";
+            assertEquals(1, report.violationCount(VerificationClause.SUBSTITUTABILITY));
+            assertEquals(1, report.violationCount(VerificationClause.TOTAL_ORDER));
+            assertEquals(2, report.violationCount());
+            assertEquals(message, report.violations(VerificationClause.SUBSTITUTABILITY).get(0).message());
+            assertEquals(message, report.violations(VerificationClause.TOTAL_ORDER).get(0).message());
+        }
+
+        @Test
+        public void should_store_only_the_first_violations_of_a_clause() {
+            // when:
+            final VerificationReport report = ComparatorVerifier
+                    .forInstances(BY_VALUE_NEVER_EQUAL, lesser, equal, greater)
+                    .verifyAll(3);
+
+            // then:
+            assertEquals(4, report.violationCount(VerificationClause.ANTISYMMETRY));
+            assertEquals(3, report.violations(VerificationClause.ANTISYMMETRY).size());
+            assertTrue(report.toString().contains("ANTISYMMETRY: 1 more"));
+        }
+
+        @Test
+        public void should_collect_the_same_violations_in_parallel() {
+            // given:
+            final Correct[] many = new Correct[300];
+            for (int i = 0; i < many.length; i++) {
+                many[i] = new Correct(i);
+            }
+            final VerificationInstancesCreator<Correct> manyLesser = VerificationInstancesCreators.from(many);
+
+            // when:
+            final VerificationReport sequential = ComparatorVerifier
+                    .forInstances(BY_VALUE_NEVER_EQUAL, manyLesser, equal, greater)
+                    .verifyAll();
+            final VerificationReport parallel = ComparatorVerifier
+                    .forInstances(BY_VALUE_NEVER_EQUAL, manyLesser, equal, greater)
+                    .parallel(new ForkJoinPool(4))
+                    .verifyAll();
+
+            // then:
+            assertEquals(sequential.toString(), parallel.toString());
+        }
+
+        @Test
+        public void should_truncate_long_instances() {
+            // given:
+            final char[] chars = new char[10000];
+            Arrays.fill(chars, 'x');
+            final String longString = new String(chars);
+            final Comparator<String> neverEqual = new Comparator<String>() {
+                @Override
+                public int compare(final String first, final String second) {
+                    return first.compareTo(second) <= 0 ? -1 : 1;
+                }
+            };
+
+            // when:
+            final VerificationReport report = ComparatorVerifier
+                    .forInstances(
+                            neverEqual,
+                            VerificationInstancesCreators.from(longString + "a"),
+                            VerificationInstancesCreators.from(longString + "b", longString + "b"),
+                            VerificationInstancesCreators.from(longString + "c")
+                    )
+                    .verifyAll();
+
+            // then:
+            final String message = report.violations(VerificationClause.TOTAL_ORDER).get(0).message();
+            assertTrue(message.endsWith("... does not compare as equal to itself!"));
+            assertTrue(message.length() < 200);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.Correct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+
+public class CompareCostProfilerTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void should_fit_the_growth_exponent() {
+        // given:
+        final double[] logSizes = {Math.log(16), Math.log(32), Math.log(64)};
+        final double[] logNanos = {Math.log(3 * 256), Math.log(3 * 1024), Math.log(3 * 4096)};
+
+        // when:
+        final double exponent = CompareCostProfiler.slope(logSizes, logNanos);
+
+        // then:
+        assertEquals(2.0, exponent, 1e-9);
+    }
+
+    @Test
+    public void should_pass_for_constant_compareTo() {
+        // given:
+        final IntFunction<VerificationInstancesCreator<Correct>> lesser = correct(0);
+        final IntFunction<VerificationInstancesCreator<Correct>> equal = correct(42);
+        final IntFunction<VerificationInstancesCreator<Correct>> greater = correct(100);
+
+        // when:
+        CompareCostProfiler
+                .forInstances(lesser, equal, greater)
+                .sizes(16, 1024)
+                .verify(CompareComplexity.CONSTANT);
+    }
+
+    @Test
+    public void should_pass_for_strings_with_common_prefix_declared_linear() {
+        // given:
+        final IntFunction<VerificationInstancesCreator<String>> lesser = prefixed('a');
+        final IntFunction<VerificationInstancesCreator<String>> equal = prefixed('b');
+        final IntFunction<VerificationInstancesCreator<String>> greater = prefixed('c');
+
+        // when:
+        CompareCostProfiler
+                .forInstances(lesser, equal, greater)
+                .sizes(64, 8192)
+                .verify(CompareComplexity.LINEAR);
+    }
+
+    @Test
+    public void should_fail_for_quadratic_comparator_declared_linear() {
+        // given:
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString("Comparator cost grows as size^"));
+        expectedException.expectMessage(containsString("for sizes from 64 to 1024 but O(n) was declared!"));
+
+        // when:
+        final FakeClock clock = new FakeClock();
+        CompareCostProfiler
+                .forInstances(clock.quadratic(), filled(1), filled(2), filled(3))
+                .sizes(64, 1024)
+                .clock(clock)
+                .verify(CompareComplexity.LINEAR);
+    }
+
+    @Test
+    public void should_throw_if_there_is_just_one_size() {
+        // given:
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("At least two sizes are needed to fit the growth!");
+
+        // when:
+        CompareCostProfiler
+                .forInstances(correct(0), correct(42), correct(100))
+                .sizes(16, 31);
+    }
+
+    @Test
+    public void should_throw_if_factory_is_null() {
+        // given:
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Instances factory (equal) cannot be null!");
+
+        // when:
+        CompareCostProfiler
+                .forInstances(correct(0), null, correct(100))
+                .verify(CompareComplexity.CONSTANT);
+    }
+
+    private static IntFunction<VerificationInstancesCreator<Correct>> correct(final int value) {
+        return new IntFunction<VerificationInstancesCreator<Correct>>() {
+            @Override
+            public VerificationInstancesCreator<Correct> apply(final int size) {
+                return VerificationInstancesCreators.from(new Correct(value), new Correct(value));
+            }
+        };
+    }
+
+    // strings differing only in the last character after a long common prefix
+    private static IntFunction<VerificationInstancesCreator<String>> prefixed(final char last) {
+        return new IntFunction<VerificationInstancesCreator<String>>() {
+            @Override
+            public VerificationInstancesCreator<String> apply(final int size) {
+                final char[] chars = new char[size];
+                Arrays.fill(chars, 'x');
+                chars[size - 1] = last;
+                return VerificationInstancesCreators.from(new String(chars), new String(chars));
+            }
+        };
+    }
+
+    private static IntFunction<VerificationInstancesCreator<int[]>> filled(final int value) {
+        return new IntFunction<VerificationInstancesCreator<int[]>>() {
+            @Override
+            public VerificationInstancesCreator<int[]> apply(final int size) {
+                final int[] values = new int[size];
+                Arrays.fill(values, value);
+                return VerificationInstancesCreators.from(values);
+            }
+        };
+    }
+
+    // advances only when a comparison is made, by the cost declared by the comparator
+    private static final class FakeClock implements LongSupplier {
+        private long nanos = 0;
+
+        @Override
+        public long getAsLong() {
+            return nanos;
+        }
+
+        Comparator<int[]> quadratic() {
+            return new Comparator<int[]>() {
+                @Override
+                public int compare(final int[] first, final int[] second) {
+                    nanos += (long) first.length * first.length;
+                    return Integer.compare(first[0], second[0]);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.Correct;
+import org.artrev.compareverifier.implementations.Versioned;
+import org.hamcrest.CoreMatchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Enclosed.class)
+public class DifferentialVerifierTest {
+    private static final Comparator<Correct> BY_VALUE = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            return Integer.compare(first.value, second.value);
+        }
+    };
+
+    // a common optimization, the subtraction overflows for values far apart
+    private static final Comparator<Correct> BY_VALUE_SUBTRACTION = new Comparator<Correct>() {
+        @Override
+        public int compare(final Correct first, final Correct second) {
+            return first.value - second.value;
+        }
+    };
+
+    private static final Comparator<Versioned> BY_VALUE_THEN_VERSION = new Comparator<Versioned>() {
+        @Override
+        public int compare(final Versioned first, final Versioned second) {
+            final int byValue = Integer.compare(first.value, second.value);
+            return byValue != 0 ? byValue : Integer.compare(first.version, second.version);
+        }
+    };
+
+    private static final InstanceGenerator<Correct> ANY = new InstanceGenerator<Correct>() {
+        @Override
+        public Correct generate(final SplittableRandom random) {
+            return new Correct(random.nextInt());
+        }
+    };
+
+    private static final InstanceGenerator<Versioned> FEW_VALUES = new InstanceGenerator<Versioned>() {
+        @Override
+        public Versioned generate(final SplittableRandom random) {
+            return new Versioned(random.nextInt(100), random.nextInt(3));
+        }
+    };
+
+    public static class ArgumentVerification {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_throw_If_Reference_is_Null() {
+            // given:
+            final Comparator<Correct> reference = null;
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Reference comparator cannot be null!");
+
+            // when:
+            DifferentialVerifier
+                    .forComparator(reference, BY_VALUE, VerificationInstancesCreators.<Correct>generated(42L, 10, ANY));
+        }
+
+        @Test
+        public void should_throw_If_Reference_of_Comparable_is_Null() {
+            // given:
+            final Comparator<Correct> reference = null;
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Reference comparator cannot be null!");
+
+            // when:
+            DifferentialVerifier
+                    .forComparable(reference, VerificationInstancesCreators.<Correct>generated(42L, 10, ANY));
+        }
+
+        @Test
+        public void should_throw_If_Comparator_is_Null() {
+            // given:
+            final Comparator<Correct> optimized = null;
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Comparator cannot be null!");
+
+            // when:
+            DifferentialVerifier
+                    .forComparator(BY_VALUE, optimized, VerificationInstancesCreators.<Correct>generated(42L, 10, ANY));
+        }
+
+        @Test
+        public void should_throw_If_Creator_is_Null() {
+            // given:
+            final VerificationInstancesCreator<Correct> creator = null;
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("VerificationInstancesCreator (instances) cannot be null!");
+
+            // when:
+            DifferentialVerifier
+                    .forComparator(BY_VALUE, BY_VALUE, creator);
+        }
+
+        @Test
+        public void should_throw_If_Batch_Size_is_too_small() {
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Batch size must be at least two!");
+
+            // when:
+            DifferentialVerifier
+                    .forComparator(BY_VALUE, BY_VALUE, VerificationInstancesCreators.<Correct>generated(42L, 10, ANY))
+                    .batchSize(1);
+        }
+    }
+
+    public static class Verify {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_pass_for_comparable_ordering_like_the_reference() {
+            // when:
+            DifferentialVerifier
+                    .forComparable(BY_VALUE, VerificationInstancesCreators.<Correct>generated(42L, 10000, ANY))
+                    .verify();
+        }
+
+        @Test
+        public void should_pass_for_comparator_ordering_like_the_reference_in_parallel() {
+            // when:
+            DifferentialVerifier
+                    .forComparator(
+                            BY_VALUE_THEN_VERSION,
+                            Comparator.<Versioned>naturalOrder(),
+                            VerificationInstancesCreators.<Versioned>generated(42L, 10000, FEW_VALUES)
+                    )
+                    .parallel(new ForkJoinPool(4))
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_comparator_that_overflows() {
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.containsString("but the reference returned"));
+
+            // when:
+            DifferentialVerifier
+                    .forComparator(BY_VALUE, BY_VALUE_SUBTRACTION, VerificationInstancesCreators.<Correct>generated(42L, 1000, ANY))
+                    .verify();
+        }
+
+        @Test
+        public void should_fail_for_comparator_that_ignores_the_tie_breaker() {
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage(CoreMatchers.containsString(
+                    "Comparator of Versioned{ value = 0, version = 0 } to Versioned{ value = 0, version = 1 } returned 0 but the reference returned -1!"
+            ));
+
+            // when:
+            DifferentialVerifier
+                    .forComparator(
+                            BY_VALUE_THEN_VERSION,
+                            BY_VALUE,
+                            VerificationInstancesCreators.<Versioned>generated(42L, 1000, FEW_VALUES)
+                    )
+                    .verify();
+        }
+    }
+
+    public static class VerifyAll {
+        @Test
+        public void should_report_the_exception_of_the_comparator() {
+            // given:
+            final Comparator<Correct> throwing = new Comparator<Correct>() {
+                @Override
+                public int compare(final Correct first, final Correct second) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+
+            // when:
+            final VerificationReport report = DifferentialVerifier
+                    .forComparator(
+                            BY_VALUE,
+                            throwing,
+                            VerificationInstancesCreators.from(new Correct(1), new Correct(2))
+                    )
+                    .verifyAll();
+
+            // then:
+            assertEquals(
+                    "Comparing Correct{ value = 1 } to Correct{ value = 2 } threw "
+                            + "java.lang.UnsupportedOperationException but the reference returned -1!",
+                    report.violations(VerificationClause.SAME_ORDER_AS_REFERENCE).get(0).message()
+            );
+        }
+
+        @Test
+        public void should_report_the_same_first_pairs_in_parallel() {
+            // given:
+            final VerificationInstancesCreator<Correct> creator =
+                    VerificationInstancesCreators.generated(42L, 5000, ANY);
+
+            // when:
+            final VerificationReport sequential = DifferentialVerifier
+                    .forComparator(BY_VALUE, BY_VALUE_SUBTRACTION, creator)
+                    .verifyAll(5);
+            final VerificationReport parallel = DifferentialVerifier
+                    .forComparator(BY_VALUE, BY_VALUE_SUBTRACTION, creator)
+                    .parallel(new ForkJoinPool(4))
+                    .verifyAll(5);
+
+            // then:
+            assertTrue(sequential.violationCount() > 5);
+            assertEquals(sequential.violationCount(), parallel.violationCount());
+            assertEquals(sequential.toString(), parallel.toString());
+            assertEquals(5, sequential.violations(VerificationClause.SAME_ORDER_AS_REFERENCE).size());
+        }
+
+        @Test
+        public void should_pass_for_single_instance() {
+            // when:
+            final VerificationReport report = DifferentialVerifier
+                    .forComparator(BY_VALUE, BY_VALUE_SUBTRACTION, VerificationInstancesCreators.<Correct>generated(42L, 1, ANY))
+                    .verifyAll();
+
+            // then:
+            assertTrue(report.isPassed());
+        }
+    }
+}
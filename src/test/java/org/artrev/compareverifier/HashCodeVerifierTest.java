@@ -0,0 +1,220 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.Clustered;
+import org.artrev.compareverifier.implementations.Correct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+
+public class HashCodeVerifierTest {
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void should_size_the_table_like_HashMap() {
+        assertEquals(16, HashCodeVerifier.tableSize(1));
+        assertEquals(16, HashCodeVerifier.tableSize(12));
+        assertEquals(32, HashCodeVerifier.tableSize(13));
+        assertEquals(2048, HashCodeVerifier.tableSize(1000));
+    }
+
+    @Test
+    public void should_spread_higher_bits_like_HashMap() {
+        assertEquals(1, HashCodeVerifier.bucket(1 << 16, 16));
+        assertEquals(0, HashCodeVerifier.bucket((1 << 16) | 1, 16));
+    }
+
+    @Test
+    public void should_pass_for_uniformly_distributed_hash_codes() {
+        // given:
+        final VerificationInstancesCreator<Correct> lesser = correct(0, 500);
+        final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(500), new Correct(500));
+        final VerificationInstancesCreator<Correct> greater = correct(501, 1000);
+
+        // when:
+        HashCodeVerifier
+                .forInstances(lesser, equal, greater)
+                .withAdditionalInstances(correct(1000, 5000))
+                .verify();
+    }
+
+    @Test
+    public void should_fail_for_equal_instances_with_different_hash_codes() {
+        // given:
+        final VerificationInstancesCreator<Clustered> lesser =
+                VerificationInstancesCreators.from(new Clustered(0, 1));
+        final VerificationInstancesCreator<Clustered> equal =
+                VerificationInstancesCreators.from(new Clustered(42, 1), new Clustered(42, 2));
+        final VerificationInstancesCreator<Clustered> greater =
+                VerificationInstancesCreators.from(new Clustered(100, 1));
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(
+                "Instances Clustered{ value = 42 }, Clustered{ value = 42 }, are equal but have different hash codes!"
+        );
+
+        // when:
+        HashCodeVerifier
+                .forInstances(lesser, equal, greater)
+                .verify();
+    }
+
+    @Test
+    public void should_fail_for_chains_that_would_be_turned_into_trees() {
+        // given:
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(
+                "10 instances fall into the same bucket of a HashMap with 2048 buckets, e.g. Clustered{ value = 0 }, Clustered{ value = 1 }!"
+        );
+
+        // when:
+        HashCodeVerifier
+                .forInstances(clustered(0, 500, 10), clustered(500, 501, 10), clustered(501, 1000, 10))
+                .verify();
+    }
+
+    @Test
+    public void should_pass_for_chains_as_long_as_HashMap_keeps_as_lists() {
+        // when:
+        HashCodeVerifier
+                .forInstances(clustered(0, 496, 8), clustered(496, 497, 8), clustered(497, 1000, 8))
+                .maxChiSquareScore(1000)
+                .verify();
+    }
+
+    @Test
+    public void should_fail_for_chains_one_longer_than_HashMap_keeps_as_lists() {
+        // given:
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(
+                "9 instances fall into the same bucket of a HashMap with 2048 buckets, e.g. Clustered{ value = 0 }, Clustered{ value = 1 }!"
+        );
+
+        // when:
+        HashCodeVerifier
+                .forInstances(clustered(0, 495, 9), clustered(495, 496, 9), clustered(496, 999, 9))
+                .maxChiSquareScore(1000)
+                .verify();
+    }
+
+    @Test
+    public void should_resize_small_table_instead_of_turning_chain_into_tree() {
+        // given:
+        // 9 keys fall into the first bucket of 16 and are split by a table of 32
+        final List<Correct> multiples = new ArrayList<Correct>();
+        for (int value = 0; value < 9 * 16; value += 16) {
+            multiples.add(new Correct(value));
+        }
+
+        // when:
+        HashCodeVerifier
+                .forInstances(
+                        VerificationInstancesCreators.from(multiples.toArray(new Correct[0])),
+                        VerificationInstancesCreators.from(new Correct(500), new Correct(500)),
+                        VerificationInstancesCreators.from(new Correct(1000))
+                )
+                .maxChiSquareScore(1000)
+                .verify();
+    }
+
+    @Test
+    public void should_fail_for_chain_of_small_table_that_is_not_split_by_resizing() {
+        // given:
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(
+                "10 instances fall into the same bucket of a HashMap with 64 buckets, e.g. Clustered{ value = 0 }, Clustered{ value = 1 }!"
+        );
+
+        // when:
+        HashCodeVerifier
+                .forInstances(clustered(0, 10, 10), clustered(10, 11, 10), clustered(20, 21, 10))
+                .verify();
+    }
+
+    @Test
+    public void should_fail_for_clustered_hash_codes() {
+        // given:
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage(containsString(
+                "Hash codes of 1000 instances are not uniformly distributed over a HashMap with 2048 buckets, chi-square score"
+        ));
+
+        // when:
+        HashCodeVerifier
+                .forInstances(clustered(0, 500, 3), clustered(500, 501, 3), clustered(501, 1000, 3))
+                .verify();
+    }
+
+    @Test
+    public void should_pass_for_clustered_hash_codes_within_the_limits() {
+        // when:
+        HashCodeVerifier
+                .forInstances(clustered(0, 500, 3), clustered(500, 501, 3), clustered(501, 1000, 3))
+                .maxChiSquareScore(100)
+                .verify();
+    }
+
+    @Test
+    public void should_throw_if_chain_length_is_not_positive() {
+        // given:
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Chain length must be positive!");
+
+        // when:
+        HashCodeVerifier
+                .forInstances(correct(0, 1), correct(1, 2), correct(2, 3))
+                .maxChainLength(0);
+    }
+
+    @Test
+    public void should_throw_if_additional_instances_creator_is_null() {
+        // given:
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("VerificationInstancesCreator (additional) cannot be null!");
+
+        // when:
+        HashCodeVerifier
+                .forInstances(correct(0, 1), correct(1, 2), correct(2, 3))
+                .withAdditionalInstances(null);
+    }
+
+    private static VerificationInstancesCreator<Correct> correct(final int from, final int to) {
+        final List<Correct> instances = new ArrayList<Correct>();
+        for (int value = from; value < to; value++) {
+            instances.add(new Correct(value));
+        }
+        return VerificationInstancesCreators.from(instances.toArray(new Correct[0]));
+    }
+
+    private static VerificationInstancesCreator<Clustered> clustered(final int from,
+                                                                     final int to,
+                                                                     final int clusterSize) {
+        final List<Clustered> instances = new ArrayList<Clustered>();
+        for (int value = from; value < to; value++) {
+            instances.add(new Clustered(value, clusterSize));
+        }
+        return VerificationInstancesCreators.from(instances.toArray(new Clustered[0]));
+    }
+}
@@ -0,0 +1,323 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Enclosed.class)
+public class IncrementalComparableVerifierTest {
+    public static class Verify {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        public void should_verify_the_created_instances_once() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    );
+
+            // when:
+            verifier.verify();
+            verifier.verify();
+
+            // then:
+            assertEquals(4, verifier.size());
+        }
+
+        @Test
+        public void should_fail_for_created_instances_in_the_wrong_groups() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(100)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(0))
+                    );
+
+            expectedException.expect(AssertionError.class);
+
+            // when:
+            verifier.add(new Correct(7));
+        }
+    }
+
+    public static class Add {
+        @Rule
+        public ExpectedException expectedException = ExpectedException.none();
+
+        @Test
+        @SuppressWarnings("ConstantConditions")
+        public void should_throw_If_Added_Instance_is_Null() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    );
+
+            expectedException.expect(IllegalArgumentException.class);
+            expectedException.expectMessage("Added instances cannot contain null instances!");
+
+            // when:
+            verifier.add(new Correct(7), null);
+        }
+
+        @Test
+        public void should_pass_for_instances_added_in_any_place_of_the_order() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    );
+
+            // when:
+            verifier
+                    .add(new Correct(50), new Correct(42))
+                    .add(new Correct(-7))
+                    .add(new Correct(1000), new Correct(50));
+
+            // then:
+            assertEquals(9, verifier.size());
+        }
+
+        @Test
+        public void should_fail_for_added_instance_that_is_not_transitive() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Cyclic(0)),
+                            VerificationInstancesCreators.from(new Cyclic(1), new Cyclic(1)),
+                            VerificationInstancesCreators.from(new Cyclic(5))
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instances Cyclic{ value = 1 }, Cyclic{ value = 2 }, Cyclic{ value = 0 }, are not transitive!");
+
+            // when:
+            verifier.add(new Cyclic(2));
+        }
+
+        @Test
+        public void should_fail_for_added_instance_that_compares_differently_to_equal_instances() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Approximate(0)),
+                            VerificationInstancesCreators.from(new Approximate(42), new Approximate(42)),
+                            VerificationInstancesCreators.from(new Approximate(100))
+                    )
+                    .suppressConsistentWithEquals(true);
+            verifier.add(new Approximate(41));
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instances Approximate{ value = 42 }, Approximate{ value = 41 }, compare as equal but differently to Approximate{ value = 40 }!");
+
+            // when:
+            verifier.add(new Approximate(40));
+        }
+
+        @Test
+        public void should_fail_for_added_instance_that_is_not_antisymmetric() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instances do not implement a total order!");
+
+            // when:
+            verifier.add(new Approximate(43));
+        }
+
+        @Test
+        public void should_fail_for_added_instance_whose_comparison_to_itself_throws() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instance CompareToThrows{ value = 7 } does not compare as equal to itself!");
+
+            // when:
+            verifier.add(new CompareToThrows(7));
+        }
+
+        @Test
+        public void should_fail_like_full_verification_for_comparison_throwing_both_ways() {
+            // given:
+            final VerificationInstancesCreator<Correct> lesser =
+                    VerificationInstancesCreators.from(new Correct(0));
+            final VerificationInstancesCreator<Correct> equal =
+                    VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+            final VerificationInstancesCreator<Correct> greater =
+                    VerificationInstancesCreators.from(new Correct(100));
+            final Correct five = new IncomparableFiveAndSix(5);
+            final Correct six = new IncomparableFiveAndSix(6);
+
+            // when:
+            final AssertionError incremental = failure(new Runnable() {
+                @Override
+                public void run() {
+                    IncrementalComparableVerifier
+                            .forInstances(lesser, equal, greater)
+                            .add(five, six);
+                }
+            });
+            final AssertionError full = failure(new Runnable() {
+                @Override
+                public void run() {
+                    ComparableVerifier
+                            .forInstances(lesser, equal, greater)
+                            .withAdditionalInstances(VerificationInstancesCreators.from(five, six))
+                            .verify();
+                }
+            });
+
+            // then:
+            // the pair is reported in the order in which it was compared
+            assertEquals("Comparing IncomparableFiveAndSix{ value = 6 } to IncomparableFiveAndSix{ value = 5 } "
+                    + "threw an exception and so did IncomparableFiveAndSix{ value = 5 } to IncomparableFiveAndSix{ value = 6 }!",
+                    incremental.getMessage());
+            assertEquals("Comparing IncomparableFiveAndSix{ value = 5 } to IncomparableFiveAndSix{ value = 6 } "
+                    + "threw an exception and so did IncomparableFiveAndSix{ value = 6 } to IncomparableFiveAndSix{ value = 5 }!",
+                    full.getMessage());
+        }
+
+        @Test
+        public void should_fail_for_added_instance_equal_to_null() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("Instance is equal to null!");
+
+            // when:
+            verifier.add(new EqualToNull(7));
+        }
+
+        @Test
+        public void should_pass_for_added_instance_equal_to_null_If_check_is_suppressed() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    )
+                    .suppressEqualsToNullReturnsFalse(true);
+
+            // when:
+            verifier.add(new EqualToNull(7));
+
+            // then:
+            assertEquals(5, verifier.size());
+        }
+
+        @Test
+        public void should_fail_for_added_instance_inconsistent_with_equals() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    );
+
+            expectedException.expect(AssertionError.class);
+            expectedException.expectMessage("CompareTo is not consistent with equals!");
+
+            // when:
+            verifier.add(new Versioned(42, 1));
+        }
+
+        @Test
+        public void should_pass_for_added_instance_inconsistent_with_equals_If_check_is_suppressed() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Correct(0)),
+                            VerificationInstancesCreators.from(new Correct(42), new Correct(42)),
+                            VerificationInstancesCreators.from(new Correct(100))
+                    )
+                    .suppressConsistentWithEquals(true);
+
+            // when:
+            verifier.add(new Versioned(42, 1));
+
+            // then:
+            assertEquals(5, verifier.size());
+        }
+
+        @Test
+        public void should_keep_none_of_the_instances_of_a_failed_add() {
+            // given:
+            final IncrementalComparableVerifier<Correct> verifier = IncrementalComparableVerifier
+                    .forInstances(
+                            VerificationInstancesCreators.from(new Approximate(0)),
+                            VerificationInstancesCreators.from(new Approximate(42), new Approximate(42)),
+                            VerificationInstancesCreators.from(new Approximate(100))
+                    )
+                    .suppressConsistentWithEquals(true);
+
+            // when:
+            try {
+                verifier.add(new Approximate(44), new Approximate(43));
+            } catch (final AssertionError ignored) {
+                // 43 is equal to both 42 and 44
+            }
+            verifier.add(new Approximate(43));
+
+            // then:
+            assertEquals(5, verifier.size());
+        }
+    }
+
+    private static AssertionError failure(final Runnable verification) {
+        try {
+            verification.run();
+        } catch (final AssertionError failure) {
+            return failure;
+        }
+        throw new AssertionError("Verification passed!");
+    }
+}
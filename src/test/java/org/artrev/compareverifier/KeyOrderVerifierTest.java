@@ -0,0 +1,157 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.Correct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+public class KeyOrderVerifierTest {
+    private static final ToIntFunction<Correct> VALUE = new ToIntFunction<Correct>() {
+        @Override
+        public int applyAsInt(final Correct instance) {
+            return instance.value;
+        }
+    };
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void should_pass_for_comparator_ordering_by_the_key() {
+        // given:
+        final VerificationInstancesCreator<Correct> lesser = creator(-200000, 0);
+        final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+        final VerificationInstancesCreator<Correct> greater = creator(100, 300000);
+
+        // when:
+        KeyOrderVerifier
+                .forIntKey(VALUE, Comparator.comparingInt(VALUE), lesser, equal, greater)
+                .parallel(new ForkJoinPool(4))
+                .verify();
+    }
+
+    @Test
+    public void should_pass_for_ties_broken_by_another_comparison() {
+        // given:
+        final VerificationInstancesCreator<Correct> lesser = creator(0, 10);
+        final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+        final VerificationInstancesCreator<Correct> greater = creator(100, 110);
+        final ToIntFunction<Correct> tens = new ToIntFunction<Correct>() {
+            @Override
+            public int applyAsInt(final Correct instance) {
+                return instance.value / 10;
+            }
+        };
+
+        // when:
+        KeyOrderVerifier
+                .forIntKey(tens, Comparator.comparingInt(tens).thenComparingInt(VALUE), lesser, equal, greater)
+                .verify();
+    }
+
+    @Test
+    public void should_fail_for_comparator_disagreeing_with_the_key() {
+        // given:
+        final VerificationInstancesCreator<Correct> lesser =
+                VerificationInstancesCreators.from(new Correct(Integer.MIN_VALUE));
+        final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+        final VerificationInstancesCreator<Correct> greater = creator(100, 1000);
+        final Comparator<Correct> subtraction = new Comparator<Correct>() {
+            @Override
+            public int compare(final Correct first, final Correct second) {
+                return first.value - second.value;
+            }
+        };
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Comparing Correct{ value = -2147483648 } to Correct{ value = 42 } returned 1 but their keys compare as -1!");
+
+        // when:
+        KeyOrderVerifier
+                .forIntKey(VALUE, subtraction, lesser, equal, greater)
+                .verify();
+    }
+
+    @Test
+    public void should_fail_for_keys_not_ordered_like_the_groups() {
+        // given:
+        final VerificationInstancesCreator<Correct> lesser = creator(0, 50);
+        final VerificationInstancesCreator<Correct> equal =
+                VerificationInstancesCreators.from(new Correct(42), new Correct(42));
+        final VerificationInstancesCreator<Correct> greater = creator(100, 110);
+
+        expectedException.expect(AssertionError.class);
+        expectedException.expectMessage("Key of Correct{ value = 49 } is not lesser than key of Correct{ value = 42 }!");
+
+        // when:
+        KeyOrderVerifier
+                .forLongKey(new ToLongFunction<Correct>() {
+                    @Override
+                    public long applyAsLong(final Correct instance) {
+                        return instance.value;
+                    }
+                }, Comparator.comparingInt(VALUE), lesser, equal, greater)
+                .verify();
+    }
+
+    @Test
+    public void should_order_double_keys_like_Double_compare() {
+        // given:
+        final VerificationInstancesCreator<Double> lesser =
+                VerificationInstancesCreators.from(Double.NEGATIVE_INFINITY, -1.5, -0.0);
+        final VerificationInstancesCreator<Double> equal =
+                VerificationInstancesCreators.from(0.0, 0.0);
+        final VerificationInstancesCreator<Double> greater =
+                VerificationInstancesCreators.from(Double.MIN_VALUE, Double.POSITIVE_INFINITY, Double.NaN);
+        final ToDoubleFunction<Double> identity = new ToDoubleFunction<Double>() {
+            @Override
+            public double applyAsDouble(final Double value) {
+                return value;
+            }
+        };
+
+        // when:
+        KeyOrderVerifier
+                .forDoubleKey(identity, Comparator.<Double>naturalOrder(), lesser, equal, greater)
+                .verify();
+    }
+
+    private static VerificationInstancesCreator<Correct> creator(final int from, final int to) {
+        final List<Correct> instances = new ArrayList<Correct>(to - from);
+        for (int i = from; i < to; i++) {
+            instances.add(new Correct(i));
+        }
+        return new VerificationInstancesCreator<Correct>() {
+            @Override
+            public List<Correct> create() {
+                return instances;
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void should_keep_small_values_exact() {
+        for (long value = 0; value < 32; value++) {
+            assertEquals(value, LatencyHistogram.highestValue(LatencyHistogram.bucket(value)));
+        }
+    }
+
+    @Test
+    public void should_keep_large_values_within_relative_error() {
+        for (long value = 32; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            // when:
+            final long highest = LatencyHistogram.highestValue(LatencyHistogram.bucket(value));
+
+            // then:
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / 16);
+        }
+    }
+
+    @Test
+    public void should_return_value_at_percentile() {
+        // given:
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        // when:
+        final long median = histogram.valueAtPercentile(50);
+        final long maximum = histogram.valueAtPercentile(100);
+
+        // then:
+        assertEquals(100, histogram.total());
+        assertTrue(median >= 50 && median <= 53);
+        assertTrue(maximum >= 100 && maximum <= 103);
+    }
+
+    @Test
+    public void should_forget_recorded_values_when_cleared() {
+        // given:
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+
+        // when:
+        histogram.clear();
+        histogram.record(3);
+
+        // then:
+        assertEquals(1, histogram.total());
+        assertEquals(3, histogram.valueAtPercentile(100));
+    }
+}
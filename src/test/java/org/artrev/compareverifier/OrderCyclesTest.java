@@ -0,0 +1,125 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class OrderCyclesTest {
+    @Test
+    public void should_not_find_counterexample_for_total_order() {
+        // given:
+        final SignMatrix<Integer> signs = signs(integers(3000), new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                // many instances compare as equal
+                return Integer.compare(first / 7, second / 7);
+            }
+        });
+
+        // when:
+        final int[] counterexample = OrderCycles.findCounterexample(signs);
+
+        // then:
+        assertNull(counterexample);
+    }
+
+    @Test
+    public void should_find_instance_not_equal_to_itself() {
+        // given:
+        final SignMatrix<Integer> signs = signs(integers(10), new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                return first == 5 && second == 5 ? 1 : Integer.compare(first, second);
+            }
+        });
+
+        // when:
+        final int[] counterexample = OrderCycles.findCounterexample(signs);
+
+        // then:
+        assertArrayEquals(new int[]{5}, counterexample);
+    }
+
+    @Test
+    public void should_find_pair_that_is_not_antisymmetric() {
+        // given:
+        final SignMatrix<Integer> signs = signs(integers(10), new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                return first == 3 && second == 8 ? 0 : Integer.compare(first, second);
+            }
+        });
+
+        // when:
+        final int[] counterexample = OrderCycles.findCounterexample(signs);
+
+        // then:
+        assertArrayEquals(new int[]{3, 8}, counterexample);
+    }
+
+    @Test
+    public void should_shorten_long_cycle_to_a_triple() {
+        // given:
+        // a long chain of instances where the last one is lesser than the first one
+        final int size = 5000;
+        final SignMatrix<Integer> signs = signs(integers(size), new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                if (first == 0 && second == size - 1)
+                    return 1;
+                if (first == size - 1 && second == 0)
+                    return -1;
+                return Integer.compare(first, second);
+            }
+        });
+
+        // when:
+        final int[] counterexample = OrderCycles.findCounterexample(signs);
+
+        // then:
+        assertEquals(3, counterexample.length);
+        final Integer a = signs.instance(counterexample[0]);
+        final Integer b = signs.instance(counterexample[1]);
+        final Integer c = signs.instance(counterexample[2]);
+        assertEquals(true, signs.sign(counterexample[0], counterexample[1]) >= 0);
+        assertEquals(true, signs.sign(counterexample[1], counterexample[2]) >= 0);
+        assertEquals(1, signs.sign(counterexample[2], counterexample[0]));
+        assertEquals(3, new HashSet<Integer>(Arrays.asList(a, b, c)).size());
+    }
+
+    private static SignMatrix<Integer> signs(final List<Integer> instances,
+                                             final Comparator<Integer> comparator) {
+        return new SignMatrix<Integer>(instances, comparator);
+    }
+
+    private static List<Integer> integers(final int count) {
+        final List<Integer> instances = new ArrayList<Integer>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(i);
+        }
+        return instances;
+    }
+}
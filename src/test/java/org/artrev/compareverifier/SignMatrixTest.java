@@ -0,0 +1,178 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.CompareToThrows;
+import org.artrev.compareverifier.implementations.Correct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SignMatrixTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_compare_every_ordered_pair_at_most_once() {
+        // given:
+        final CountingComparator comparator = new CountingComparator();
+        final SignMatrix<Correct> signs = new SignMatrix<Correct>(correct(100), comparator);
+
+        // when:
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < signs.size(); i++) {
+                for (int j = 0; j < signs.size(); j++) {
+                    assertEquals(Integer.signum(i - j), signs.sign(i, j));
+                }
+            }
+        }
+
+        // then:
+        assertEquals(100 * 100, comparator.calls);
+    }
+
+    @Test
+    public void should_fill_all_pairs_in_parallel() {
+        // given:
+        final CountingComparator comparator = new CountingComparator();
+        final SignMatrix<Correct> signs = new SignMatrix<Correct>(correct(130), comparator);
+
+        // when:
+        signs.fill(new ForkJoinPool(4));
+
+        // then:
+        for (int i = 0; i < signs.size(); i++) {
+            for (int j = 0; j < signs.size(); j++) {
+                assertEquals(Integer.signum(i - j), signs.sign(i, j));
+            }
+        }
+        assertEquals(130 * 130, comparator.calls);
+    }
+
+    @Test
+    public void should_keep_the_matrix_on_the_heap_within_the_limit() {
+        // given:
+        final CountingComparator comparator = new CountingComparator();
+
+        // when:
+        final SignMatrix<Correct> signs = new SignMatrix<Correct>(
+                correct(130), comparator, temporaryFolder.getRoot(), 1 << 20
+        );
+
+        // then:
+        assertFalse(signs.isMapped());
+    }
+
+    @Test
+    public void should_fill_all_pairs_of_a_mapped_matrix_in_parallel() throws Exception {
+        // given:
+        final CountingComparator comparator = new CountingComparator();
+        final SignMatrix<Correct> signs = new SignMatrix<Correct>(
+                correct(130), comparator, temporaryFolder.newFolder(), 0
+        );
+
+        // when:
+        signs.fill(new ForkJoinPool(4));
+
+        // then:
+        assertTrue(signs.isMapped());
+        for (int i = 0; i < signs.size(); i++) {
+            for (int j = 0; j < signs.size(); j++) {
+                assertEquals(Integer.signum(i - j), signs.sign(i, j));
+            }
+        }
+        assertEquals(130 * 130, comparator.calls);
+    }
+
+    @Test
+    public void should_remember_exceptions_thrown_by_comparison() {
+        // given:
+        final CountingComparator comparator = new CountingComparator();
+        final SignMatrix<Correct> signs = new SignMatrix<Correct>(
+                Arrays.<Correct>asList(new Correct(0), new CompareToThrows(1)),
+                comparator
+        );
+
+        // when:
+        final int signOrThrown = signs.signOrThrown(1, 0);
+
+        // then:
+        assertEquals(SignMatrix.THROWN, signOrThrown);
+        assertEquals(-1, signs.sign(0, 1));
+        try {
+            signs.sign(1, 0);
+            fail();
+        } catch (final CompareToThrows.CompareToException expected) {
+            // rethrown from the matrix
+        }
+        assertEquals(2, comparator.calls);
+    }
+
+    @Test
+    public void should_find_equal_columns_and_differences_between_rows() {
+        // given:
+        final SignMatrix<Correct> signs = new SignMatrix<Correct>(correct(130), new Comparator<Correct>() {
+            @Override
+            public int compare(final Correct first, final Correct second) {
+                // 64 and 65 compare as equal but 65 is also equal to 129
+                if (first.value == 65 && second.value == 129 || first.value == 129 && second.value == 65)
+                    return 0;
+                return Integer.compare(first.value / 2, second.value / 2);
+            }
+        });
+        for (int i = 0; i < signs.size(); i++) {
+            signs.completeRow(i);
+        }
+
+        // then:
+        assertEquals(64, signs.nextEqualColumn(64, 0));
+        assertEquals(65, signs.nextEqualColumn(64, 65));
+        assertEquals(129, signs.nextEqualColumn(65, 66));
+        assertEquals(130, signs.nextEqualColumn(64, 66));
+        assertEquals(130, signs.firstDifferentColumn(2, 3));
+        assertEquals(129, signs.firstDifferentColumn(64, 65));
+    }
+
+    private static List<Correct> correct(final int count) {
+        final List<Correct> instances = new ArrayList<Correct>(count);
+        for (int i = 0; i < count; i++) {
+            instances.add(new Correct(i));
+        }
+        return instances;
+    }
+
+    // parallel fill calls compare from many threads, but every pair only once
+    private static final class CountingComparator implements Comparator<Correct> {
+        private int calls = 0;
+
+        @Override
+        public synchronized int compare(final Correct first, final Correct second) {
+            calls++;
+            return first.compareTo(second);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.artrev.compareverifier.implementations.Correct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class VerificationInstancesCreatorsTest {
+    private static final InstanceGenerator<Correct> ANY = new InstanceGenerator<Correct>() {
+        @Override
+        public Correct generate(final SplittableRandom random) {
+            return new Correct(random.nextInt());
+        }
+    };
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void should_generate_the_same_instances_for_the_same_seed() {
+        // when:
+        final List<Correct> first = VerificationInstancesCreators.<Correct>generated(42L, 5000, ANY).create();
+        final List<Correct> second = VerificationInstancesCreators.<Correct>generated(42L, 5000, ANY).create();
+
+        // then:
+        assertEquals(5000, first.size());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void should_generate_different_instances_for_different_seeds() {
+        // when:
+        final List<Correct> first = VerificationInstancesCreators.<Correct>generated(42L, 100, ANY).create();
+        final List<Correct> second = VerificationInstancesCreators.<Correct>generated(43L, 100, ANY).create();
+
+        // then:
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void should_generate_the_same_instances_in_parallel() {
+        // given:
+        final VerificationInstancesCreator<Correct> sequential =
+                VerificationInstancesCreators.generated(7L, 100000, ANY);
+        final VerificationInstancesCreator<Correct> parallel =
+                VerificationInstancesCreators.generated(7L, 100000, ANY, new ForkJoinPool(4));
+
+        // then:
+        assertEquals(sequential.create(), parallel.create());
+    }
+
+    @Test
+    public void should_verify_generated_instances() {
+        // given:
+        final VerificationInstancesCreator<Correct> lesser = VerificationInstancesCreators.generated(
+                1L, 300, new InstanceGenerator<Correct>() {
+                    @Override
+                    public Correct generate(final SplittableRandom random) {
+                        return new Correct(random.nextInt(Integer.MIN_VALUE, 42));
+                    }
+                }
+        );
+        final VerificationInstancesCreator<Correct> equal = VerificationInstancesCreators.generated(
+                2L, 10, new InstanceGenerator<Correct>() {
+                    @Override
+                    public Correct generate(final SplittableRandom random) {
+                        return new Correct(42);
+                    }
+                }
+        );
+        final VerificationInstancesCreator<Correct> greater = VerificationInstancesCreators.generated(
+                3L, 300, new InstanceGenerator<Correct>() {
+                    @Override
+                    public Correct generate(final SplittableRandom random) {
+                        return new Correct(random.nextInt(43, Integer.MAX_VALUE));
+                    }
+                }
+        );
+
+        // when:
+        ComparableVerifier
+                .forInstances(lesser, equal, greater)
+                .verify();
+    }
+
+    @Test
+    public void should_throw_if_count_is_not_positive() {
+        // given:
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Count must be positive!");
+
+        // when:
+        VerificationInstancesCreators.generated(42L, 0, ANY);
+    }
+
+    @Test
+    public void should_throw_if_generator_is_null() {
+        // given:
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("InstanceGenerator cannot be null!");
+
+        // when:
+        VerificationInstancesCreators.<Correct>generated(42L, 10, null);
+    }
+}
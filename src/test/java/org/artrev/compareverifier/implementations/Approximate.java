@@ -0,0 +1,22 @@
+package org.artrev.compareverifier.implementations;
+
+// values that differ by at most one compare as equal, so 0 == 1 and 1 == 2
+// but 0 < 2, comparisons with values further away are correct
+public class Approximate extends Correct {
+    public Approximate(final int value) {
+        super(value);
+    }
+
+    @Override
+    public int compareTo(final Correct other) {
+        if (Math.abs(value - other.value) <= 1)
+            return 0;
+
+        return super.compareTo(other);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Approximate{ value = %d }", value);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier.implementations;
+
+import java.util.ConcurrentModificationException;
+
+// orders and equals correctly on a single thread, but equals marks a buffer
+// of the instance as in use, so equals called by another thread at the same
+// time throws
+public class BufferedEquals implements Comparable<BufferedEquals> {
+    public final int value;
+
+    private boolean isInUse = false;
+    private boolean isAllocated = false;
+
+    public BufferedEquals(final int value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+
+        if (null == other || getClass() != other.getClass())
+            return false;
+
+        if (isInUse)
+            throw new ConcurrentModificationException("Buffer of " + this + " is in use!");
+
+        isInUse = true;
+        try {
+            if (!isAllocated) {
+                isAllocated = true;
+                // widens the window in which the other threads see the buffer in use
+                Thread.sleep(10);
+            }
+            return value == ((BufferedEquals) other).value;
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            return value == ((BufferedEquals) other).value;
+        } finally {
+            isInUse = false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(final BufferedEquals other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BufferedEquals{ value = %d }", value);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier.implementations;
+
+// orders correctly, but the hash codes of the neighbouring values collide
+public class Clustered implements Comparable<Clustered> {
+    public final int value;
+    private final int clusterSize;
+
+    public Clustered(final int value, final int clusterSize) {
+        this.value = value;
+        this.clusterSize = clusterSize;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+
+        if (null == other || getClass() != other.getClass())
+            return false;
+
+        final Clustered that = (Clustered) other;
+
+        return value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value / clusterSize;
+    }
+
+    @Override
+    public int compareTo(final Clustered other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Clustered{ value = %d }", value);
+    }
+}
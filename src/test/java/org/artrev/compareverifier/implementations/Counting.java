@@ -0,0 +1,58 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier.implementations;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// orders correctly, counts all of the comparisons of its instances
+public class Counting implements Comparable<Counting> {
+    public static final AtomicLong COMPARISONS = new AtomicLong();
+
+    public final int value;
+
+    public Counting(final int value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+
+        if (null == other || getClass() != other.getClass())
+            return false;
+
+        final Counting that = (Counting) other;
+
+        return value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(final Counting other) {
+        COMPARISONS.incrementAndGet();
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Counting{ value = %d }", value);
+    }
+}
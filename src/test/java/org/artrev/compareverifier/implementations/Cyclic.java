@@ -0,0 +1,22 @@
+package org.artrev.compareverifier.implementations;
+
+// values 0, 1 and 2 compare like rock, paper and scissors:
+// 0 < 1, 1 < 2 but 2 < 0, comparisons with other values are correct
+public class Cyclic extends Correct {
+    public Cyclic(final int value) {
+        super(value);
+    }
+
+    @Override
+    public int compareTo(final Correct other) {
+        if (value < 3 && other.value < 3 && value != other.value)
+            return (other.value - value + 3) % 3 == 1 ? -1 : 1;
+
+        return super.compareTo(other);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cyclic{ value = %d }", value);
+    }
+}
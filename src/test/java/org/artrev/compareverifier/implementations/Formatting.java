@@ -0,0 +1,53 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier.implementations;
+
+// orders correctly non-negative values, but allocates on every comparison
+public class Formatting implements Comparable<Formatting> {
+    public final int value;
+
+    public Formatting(final int value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+
+        if (null == other || getClass() != other.getClass())
+            return false;
+
+        final Formatting that = (Formatting) other;
+
+        return value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(final Formatting other) {
+        return String.format("%010d", value).compareTo(String.format("%010d", other.value));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Formatting{ value = %d }", value);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier.implementations;
+
+// cannot compare 5 and 6 in either direction
+public class IncomparableFiveAndSix extends Correct {
+    public IncomparableFiveAndSix(final int value) {
+        super(value);
+    }
+
+    @Override
+    public int compareTo(final Correct other) {
+        if (value == 5 && other.value == 6 || value == 6 && other.value == 5)
+            throw new IllegalStateException("Cannot compare 5 and 6!");
+        return super.compareTo(other);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IncomparableFiveAndSix{ value = %d }", value);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier.implementations;
+
+// orders correctly on a single thread, but marks its lazily normalized value
+// as computed before it is written, so other threads may compare zeros
+public class LazyNormalized implements Comparable<LazyNormalized> {
+    public final int value;
+
+    private boolean isNormalized = false;
+    private int normalized = 0;
+
+    public LazyNormalized(final int value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+
+        if (null == other || getClass() != other.getClass())
+            return false;
+
+        final LazyNormalized that = (LazyNormalized) other;
+
+        return value == that.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public int compareTo(final LazyNormalized other) {
+        return Integer.compare(normalized(), other.normalized());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LazyNormalized{ value = %d }", value);
+    }
+
+    private int normalized() {
+        if (!isNormalized) {
+            isNormalized = true;
+            try {
+                // widens the window in which the other threads see the flag
+                Thread.sleep(10);
+            } catch (final InterruptedException exc) {
+                Thread.currentThread().interrupt();
+            }
+            normalized = value;
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier.implementations;
+
+// this is using equals and hashCode from base class Correct
+// but its compareTo orders the versions of the same value
+public class Versioned extends Correct {
+    public final int version;
+
+    public Versioned(final int value,
+                     final int version) {
+        super(value);
+        this.version = version;
+    }
+
+    @Override
+    public int compareTo(final Correct other) {
+        final int byValue = super.compareTo(other);
+        if (byValue != 0 || !(other instanceof Versioned))
+            return byValue;
+
+        return Integer.compare(version, ((Versioned) other).version);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Versioned{ value = %d, version = %d }", value, version);
+    }
+}
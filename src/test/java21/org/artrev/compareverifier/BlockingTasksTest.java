@@ -0,0 +1,92 @@
+/*
+  Copyright (c) 2020-present, CompareVerifier Contributors.
+
+  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+  use this file except in compliance with the License. You may obtain a copy
+  of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+  WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+  License for the specific language governing permissions and limitations
+  under the License.
+ */
+package org.artrev.compareverifier;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// runs against the classes of src/main/java21, as loaded from the multi-release JAR on Java 21
+public class BlockingTasksTest {
+    @Test
+    public void should_run_every_task_on_its_own_virtual_thread() throws InterruptedException {
+        // given:
+        final int taskCount = 1000;
+        final CountDownLatch started = new CountDownLatch(taskCount);
+        final AtomicInteger virtual = new AtomicInteger();
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int t = 0; t < taskCount; t++) {
+            tasks.add(new Runnable() {
+                @Override
+                public void run() {
+                    if (Thread.currentThread().isVirtual()
+                            && Thread.currentThread().getName().startsWith("compare-verifier-test-"))
+                        virtual.incrementAndGet();
+
+                    // every task blocks until all of them are started
+                    started.countDown();
+                    try {
+                        started.await();
+                    } catch (final InterruptedException exc) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+
+        // when:
+        BlockingTasks.runAll("compare-verifier-test", tasks);
+
+        // then:
+        assertEquals(0, started.getCount());
+        assertEquals(taskCount, virtual.get());
+    }
+
+    @Test
+    public void should_throw_if_interrupted_while_waiting() {
+        // given:
+        final CountDownLatch never = new CountDownLatch(1);
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        tasks.add(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    never.await();
+                } catch (final InterruptedException exc) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        Thread.currentThread().interrupt();
+
+        // when:
+        boolean interrupted = false;
+        try {
+            BlockingTasks.runAll("compare-verifier-test", tasks);
+        } catch (final InterruptedException exc) {
+            interrupted = true;
+        }
+
+        // then:
+        assertTrue(interrupted);
+    }
+}